@@ -0,0 +1,38 @@
+package net.frey.mongo.config;
+
+import net.frey.mongo.repository.BeerRepository;
+import net.frey.mongo.repository.CustomerRepository;
+import net.frey.mongo.repository.memory.InMemoryBeerRepository;
+import net.frey.mongo.repository.memory.InMemoryCustomerRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the API without MongoDB or an authorization server: repositories are kept in memory and any bearer token is
+ * accepted. Lives outside the main source set so it can never be packaged into the application.
+ */
+@Configuration
+@Profile(Profiles.IN_MEMORY)
+public class InMemoryConfig {
+    @Bean
+    public BeerRepository beerRepository() {
+        return new InMemoryBeerRepository();
+    }
+
+    @Bean
+    public CustomerRepository customerRepository() {
+        return new InMemoryCustomerRepository();
+    }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder() {
+        return token -> Mono.just(Jwt.withTokenValue(token)
+                .header("alg", "none")
+                .subject(Profiles.IN_MEMORY)
+                .build());
+    }
+}
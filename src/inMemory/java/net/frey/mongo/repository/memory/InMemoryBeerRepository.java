@@ -0,0 +1,73 @@
+package net.frey.mongo.repository.memory;
+
+import static net.frey.mongo.repository.Modifications.touch;
+
+import java.util.Objects;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.repository.BeerRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class InMemoryBeerRepository extends InMemoryRepository<Beer> implements BeerRepository {
+    public InMemoryBeerRepository() {
+        super(Beer::getId, Beer::setId);
+    }
+
+    @Override
+    public Mono<Beer> modify(String id, Long expectedVersion, Update update) {
+        return modify(id, beer -> expectedVersion == null || expectedVersion.equals(beer.getVersion()), touch(update));
+    }
+
+    @Override
+    public Mono<Beer> adjustQuantityOnHand(String id, int delta) {
+        return modify(
+                id,
+                beer -> delta >= 0 || (beer.getQuantityOnHand() != null && beer.getQuantityOnHand() >= -delta),
+                touch(new Update().inc("quantityOnHand", delta)));
+    }
+
+    @Override
+    public Mono<Beer> findFirstByBeerName(String beerName) {
+        return find(beer -> Objects.equals(beer.getBeerName(), beerName)).next();
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyle(String beerStyle) {
+        return find(beer -> Objects.equals(beer.getBeerStyle(), beerStyle));
+    }
+
+    @Override
+    public Flux<Beer> findAllBy(Pageable pageable) {
+        return find(null, beer -> true, pageable);
+    }
+
+    @Override
+    public Flux<Beer> findByIdGreaterThan(String id, Pageable pageable) {
+        return find(id, beer -> true, pageable);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyle(String beerStyle, Pageable pageable) {
+        return find(null, beer -> Objects.equals(beer.getBeerStyle(), beerStyle), pageable);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyleAndIdGreaterThan(String beerStyle, String id, Pageable pageable) {
+        return find(id, beer -> Objects.equals(beer.getBeerStyle(), beerStyle), pageable);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerNamePrefix(String prefix, int limit) {
+        return findByNamePrefix(Beer::getBeerName, prefix, limit);
+    }
+
+    @Override
+    public Flux<Beer> searchText(String terms, int limit) {
+        return findByNameTerms(
+                beer -> Objects.toString(beer.getBeerName(), "") + " " + Objects.toString(beer.getBeerStyle(), ""),
+                terms,
+                limit);
+    }
+}
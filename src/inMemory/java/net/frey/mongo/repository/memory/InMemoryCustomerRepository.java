@@ -0,0 +1,51 @@
+package net.frey.mongo.repository.memory;
+
+import static net.frey.mongo.repository.Modifications.touch;
+
+import java.util.Objects;
+import net.frey.mongo.domain.Customer;
+import net.frey.mongo.repository.CustomerRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class InMemoryCustomerRepository extends InMemoryRepository<Customer> implements CustomerRepository {
+    public InMemoryCustomerRepository() {
+        super(Customer::getId, Customer::setId);
+    }
+
+    @Override
+    public Mono<Customer> modify(String id, Long expectedVersion, Update update) {
+        return modify(
+                id,
+                customer -> expectedVersion == null || expectedVersion.equals(customer.getVersion()),
+                touch(update));
+    }
+
+    @Override
+    public Mono<Customer> findFirstByCustomerName(String customerName) {
+        return find(customer -> Objects.equals(customer.getCustomerName(), customerName))
+                .next();
+    }
+
+    @Override
+    public Flux<Customer> findAllBy(Pageable pageable) {
+        return find(null, customer -> true, pageable);
+    }
+
+    @Override
+    public Flux<Customer> findByIdGreaterThan(String id, Pageable pageable) {
+        return find(id, customer -> true, pageable);
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNamePrefix(String prefix, int limit) {
+        return findByNamePrefix(Customer::getCustomerName, prefix, limit);
+    }
+
+    @Override
+    public Flux<Customer> searchText(String terms, int limit) {
+        return findByNameTerms(Customer::getCustomerName, terms, limit);
+    }
+}
@@ -0,0 +1,341 @@
+package net.frey.mongo.repository.memory;
+
+import static net.frey.mongo.repository.Modifications.LAST_MODIFIED_DATE;
+import static net.frey.mongo.repository.Modifications.VERSION;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import net.frey.mongo.repository.NameSearch;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Map backed stand-in for a {@link ReactiveMongoRepository}, used to exercise the web and service layers without a
+ * database. Ids are generated as {@link ObjectId} hex strings and entities are kept in id order, so keyset paging
+ * behaves as it does against Mongo. Entities are copied on the way in and out, so a reader never sees a half-applied
+ * write and a caller cannot change what is stored without saving it. {@code save} checks and bumps the version and sets
+ * the audit dates as Spring Data does against Mongo. Query by example is not supported.
+ */
+public abstract class InMemoryRepository<T> implements ReactiveMongoRepository<T, String> {
+    private static final String CREATED_DATE = "createdDate";
+
+    private final NavigableMap<String, T> store = new ConcurrentSkipListMap<>();
+    private final Function<T, String> idGetter;
+    private final BiConsumer<T, String> idSetter;
+    private final Lock writeLock = new ReentrantLock();
+
+    protected InMemoryRepository(Function<T, String> idGetter, BiConsumer<T, String> idSetter) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    protected Flux<T> find(Predicate<T> filter) {
+        return Flux.fromIterable(store.values()).filter(filter).map(this::copy);
+    }
+
+    /** Entities with an id greater than {@code after}, in id order; the pageable's sort is assumed to be by id. */
+    protected Flux<T> find(String after, Predicate<T> filter, Pageable pageable) {
+        Iterable<T> values = after == null ? store.values() : store.tailMap(after, false).values();
+        Flux<T> matches = Flux.fromIterable(values).filter(filter).map(this::copy);
+
+        return pageable.isPaged() ? matches.take(pageable.getPageSize()) : matches;
+    }
+
+    /**
+     * Applies the {@code $set}, {@code $unset} and {@code $inc} operators of {@code update} to the entity with the
+     * given id if it matches {@code condition}, atomically with respect to other modifications, and emits the result.
+     */
+    protected Mono<T> modify(String id, Predicate<T> condition, Update update) {
+        return Mono.fromSupplier(() -> {
+            writeLock.lock();
+
+            try {
+                T stored = store.get(id);
+
+                if (stored == null || !condition.test(stored)) {
+                    return null;
+                }
+
+                T entity = copy(stored);
+                BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+                Document operators = update.getUpdateObject();
+
+                fields(operators, "$set").forEach(wrapper::setPropertyValue);
+                fields(operators, "$unset").keySet().forEach(field -> wrapper.setPropertyValue(field, null));
+                fields(operators, "$inc").forEach((field, delta) -> {
+                    Number current = (Number) wrapper.getPropertyValue(field);
+                    int value = (current == null ? 0 : current.intValue()) + ((Number) delta).intValue();
+                    wrapper.setPropertyValue(field, value);
+                });
+
+                store.put(id, entity);
+
+                return copy(entity);
+            } finally {
+                writeLock.unlock();
+            }
+        });
+    }
+
+    /** Entities whose name starts with {@code prefix}, ignoring case, in name order. */
+    protected Flux<T> findByNamePrefix(Function<T, String> name, String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+
+        return Flux.fromStream(() -> store.values().stream()
+                        .map(entity -> new Named<>(entity, lowerCase(name.apply(entity))))
+                        .filter(named -> named.name().startsWith(lowerPrefix))
+                        .sorted(Comparator.comparing(Named<T>::name)))
+                .map(Named::entity)
+                .take(limit)
+                .map(this::copy);
+    }
+
+    /** Entities whose name contains any of the terms as a word, those containing the most terms first. */
+    protected Flux<T> findByNameTerms(Function<T, String> name, String terms, int limit) {
+        List<String> wanted = NameSearch.terms(terms.toLowerCase(Locale.ROOT));
+
+        return Flux.fromStream(() -> store.values().stream()
+                        .map(entity -> new Named<>(entity, lowerCase(name.apply(entity))))
+                        .filter(named -> named.matches(wanted) > 0)
+                        .sorted(Comparator.comparingLong((Named<T> named) -> named.matches(wanted)).reversed()))
+                .map(Named::entity)
+                .take(limit)
+                .map(this::copy);
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Named<T>(T entity, String name) {
+        long matches(List<String> terms) {
+            List<String> words = NameSearch.terms(name);
+
+            return terms.stream().filter(words::contains).count();
+        }
+    }
+
+    private static Document fields(Document operators, String operator) {
+        Document fields = operators.get(operator, Document.class);
+
+        return fields == null ? new Document() : fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends T> S copy(S entity) {
+        S copy = (S) BeanUtils.instantiateClass(entity.getClass());
+        BeanUtils.copyProperties(entity, copy);
+
+        return copy;
+    }
+
+    /**
+     * Inserts an entity without a version, or one passed to {@code insert}, failing if its id is taken. Otherwise
+     * replaces the stored entity only if its version still matches, and bumps the version.
+     */
+    private <S extends T> S write(S entity, boolean insert) {
+        writeLock.lock();
+
+        try {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+            Long version = (Long) wrapper.getPropertyValue(VERSION);
+            LocalDateTime now = LocalDateTime.now();
+            String id = idGetter.apply(entity);
+
+            if (insert || version == null) {
+                if (id == null) {
+                    id = new ObjectId().toHexString();
+                    idSetter.accept(entity, id);
+                } else if (store.containsKey(id)) {
+                    throw new DuplicateKeyException("Duplicate id " + id);
+                }
+
+                wrapper.setPropertyValue(VERSION, version == null ? 0L : version);
+                wrapper.setPropertyValue(CREATED_DATE, now);
+            } else {
+                T stored = id == null ? null : store.get(id);
+                Object storedVersion = stored == null
+                        ? null
+                        : PropertyAccessorFactory.forBeanPropertyAccess(stored).getPropertyValue(VERSION);
+
+                if (!version.equals(storedVersion)) {
+                    throw new OptimisticLockingFailureException(
+                            "Version " + version + " of " + id + " is stale or it does not exist");
+                }
+
+                wrapper.setPropertyValue(VERSION, version + 1);
+            }
+
+            wrapper.setPropertyValue(LAST_MODIFIED_DATE, now);
+            store.put(id, copy(entity));
+
+            return entity;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return Mono.fromSupplier(() -> write(entity, false));
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Mono<S> insert(S entity) {
+        return Mono.fromSupplier(() -> write(entity, true));
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public <S extends T> Flux<S> insert(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::insert);
+    }
+
+    @Override
+    public Mono<T> findById(String id) {
+        return Mono.fromSupplier(() -> store.get(id)).map(this::copy);
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.fromSupplier(() -> store.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return Flux.fromIterable(store.values()).map(this::copy);
+    }
+
+    @Override
+    public Flux<T> findAll(Sort sort) {
+        return findAll();
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> idStream) {
+        return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) store.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> store.remove(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return deleteById(idGetter.apply(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(store::clear);
+    }
+
+    @Override
+    public <S extends T> Mono<S> findOne(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    @Override
+    public <S extends T> Flux<S> findAll(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    @Override
+    public <S extends T> Flux<S> findAll(Example<S> example, Sort sort) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    @Override
+    public <S extends T> Mono<Long> count(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    @Override
+    public <S extends T> Mono<Boolean> exists(Example<S> example) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+
+    @Override
+    public <S extends T, R, P extends Publisher<R>> P findBy(
+            Example<S> example, Function<FluentQuery.ReactiveFluentQuery<S>, P> queryFunction) {
+        throw new UnsupportedOperationException("Query by example is not supported in memory");
+    }
+}
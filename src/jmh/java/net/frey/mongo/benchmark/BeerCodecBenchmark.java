@@ -0,0 +1,105 @@
+package net.frey.mongo.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.frey.mongo.codec.BeerCodec;
+import net.frey.mongo.codec.DocumentToBeerConverter;
+import net.frey.mongo.domain.Beer;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Decodes one beer from its BSON bytes and encodes it back, the way each path in the app does it: the reflective
+ * mapping converter via a {@code Document} ({@code reflective}), the same with the hand-written reading converter
+ * ({@code converter}, which only changes decoding), and the codec straight on the wire ({@code codec}). Run with the
+ * gc profiler the build configures to compare allocation per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerCodecBenchmark {
+    private static final DecoderContext DECODE = DecoderContext.builder().build();
+    private static final EncoderContext ENCODE = EncoderContext.builder().build();
+
+    @Param({"reflective", "converter", "codec"})
+    public String mapping;
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final BeerCodec beerCodec = new BeerCodec();
+    private MappingMongoConverter converter;
+    private Beer beer;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        MongoCustomConversions conversions = mapping.equals("converter")
+                ? new MongoCustomConversions(List.of(DocumentToBeerConverter.INSTANCE))
+                : new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        beer = BeerFixtures.beer(1);
+        beer.setVersion(3L);
+
+        Document document = new Document();
+        converter.write(beer, document);
+        bytes = toBytes(document);
+    }
+
+    @Benchmark
+    public Beer decode() {
+        BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes));
+
+        if (mapping.equals("codec")) {
+            return beerCodec.decode(reader, DECODE);
+        }
+
+        return converter.read(Beer.class, documentCodec.decode(reader, DECODE));
+    }
+
+    @Benchmark
+    public int encode() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(bytes.length);
+
+        if (mapping.equals("codec")) {
+            beerCodec.encode(new BsonBinaryWriter(buffer), beer, ENCODE);
+        } else {
+            Document document = new Document();
+            converter.write(beer, document);
+            documentCodec.encode(new BsonBinaryWriter(buffer), document, ENCODE);
+        }
+
+        return buffer.getPosition();
+    }
+
+    private byte[] toBytes(Document document) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        documentCodec.encode(new BsonBinaryWriter(buffer), document, ENCODE);
+
+        return Arrays.copyOf(buffer.getInternalBuffer(), buffer.getPosition());
+    }
+}
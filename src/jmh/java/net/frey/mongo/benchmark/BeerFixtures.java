@@ -0,0 +1,25 @@
+package net.frey.mongo.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import net.frey.mongo.domain.Beer;
+import org.bson.types.ObjectId;
+
+final class BeerFixtures {
+    private BeerFixtures() {}
+
+    static Beer beer(int i) {
+        LocalDateTime now = LocalDateTime.of(2023, 5, 1, 12, 0);
+
+        return Beer.builder()
+                .id(new ObjectId().toHexString())
+                .beerName("Benchmark Beer " + i)
+                .beerStyle(i % 2 == 0 ? "IPA" : "Pale Ale")
+                .upc("0000" + i)
+                .quantityOnHand(i)
+                .price(new BigDecimal("12.99"))
+                .createdDate(now)
+                .lastModifiedDate(now)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package net.frey.mongo.benchmark;
+
+import static net.frey.mongo.endpoint.BeerHandler.BEER_PATH;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.frey.mongo.config.ApiProperties;
+import net.frey.mongo.config.ExportProperties;
+import net.frey.mongo.config.WriteBehindProperties;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.endpoint.BeerHandler;
+import net.frey.mongo.endpoint.CatalogExporter;
+import net.frey.mongo.mapper.BeerMapperImpl;
+import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.repository.memory.InMemoryBeerRepository;
+import net.frey.mongo.service.BeerServiceImpl;
+import net.frey.mongo.service.ReadThroughCache;
+import net.frey.mongo.service.SingleFlight;
+import net.frey.mongo.service.WriteBehindBatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import reactor.core.publisher.Flux;
+
+/**
+ * Drives the beer routes end to end (routing, decoding, validation, service, mapping and encoding) against an
+ * in-memory repository, so the numbers exclude the network and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BeerHandlerBenchmark {
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private LocalValidatorFactoryBean validator;
+    private WebTestClient client;
+    private String beerId;
+    private BeerDTO newBeer;
+
+    @Setup
+    public void setup() {
+        InMemoryBeerRepository repository = new InMemoryBeerRepository();
+        List<Beer> beers = Flux.range(0, 1000)
+                .map(BeerFixtures::beer)
+                .doOnNext(beer -> beer.setId(null))
+                .flatMap(repository::save)
+                .collectList()
+                .block();
+        beerId = beers.get(beers.size() / 2).getId();
+
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        BeerMapperImpl mapper = new BeerMapperImpl();
+        ReadThroughCache<BeerDTO> cache = new ReadThroughCache<>(cached ? 10_000 : 0, Duration.ofMinutes(5));
+        BeerServiceImpl service = new BeerServiceImpl(
+                mapper,
+                repository,
+                null,
+                null,
+                cache,
+                new SingleFlight(),
+                new WriteBehindBatcher<>(
+                        null, Beer.class, new WriteBehindProperties(false, 100, Duration.ofMillis(5), 0)),
+                null,
+                null);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        BeerHandler handler = new BeerHandler(
+                service,
+                validator,
+                new ApiProperties(100),
+                new CatalogExporter(objectMapper, new ExportProperties(1000, 256), new SimpleMeterRegistry()),
+                objectMapper);
+
+        client = WebTestClient.bindToRouterFunction(handler.beerRoutes()).build();
+
+        newBeer = mapper.entityToDto(BeerFixtures.beer(1));
+        newBeer.setId(null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    @Benchmark
+    public byte[] getById() {
+        return client.get()
+                .uri(BEER_PATH + "/" + beerId)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] listFirstPage() {
+        return client.get()
+                .uri(BEER_PATH + "?limit=100")
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] createBeer() {
+        return client.post()
+                .uri(BEER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(newBeer)
+                .exchange()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,39 @@
+package net.frey.mongo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.mapper.BeerMapper;
+import net.frey.mongo.mapper.BeerMapperImpl;
+import net.frey.mongo.model.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerMapperBenchmark {
+    private final BeerMapper mapper = new BeerMapperImpl();
+    private Beer beer;
+    private BeerDTO dto;
+
+    @Setup
+    public void setup() {
+        beer = BeerFixtures.beer(1);
+        dto = mapper.entityToDto(beer);
+    }
+
+    @Benchmark
+    public BeerDTO entityToDto() {
+        return mapper.entityToDto(beer);
+    }
+
+    @Benchmark
+    public Beer dtoToEntity() {
+        return mapper.dtoToEntity(dto);
+    }
+}
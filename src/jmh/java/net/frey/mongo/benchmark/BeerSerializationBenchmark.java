@@ -0,0 +1,116 @@
+package net.frey.mongo.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+import net.frey.mongo.mapper.BeerMapperImpl;
+import net.frey.mongo.model.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encodes DTOs the way WebFlux does for each negotiable response type, optionally gzipped as the server compression
+ * would. The encoded size of the list is printed once per trial so payload size can be compared alongside time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerSerializationBenchmark {
+    private static final ResolvableType BEER_TYPE = ResolvableType.forClass(BeerDTO.class);
+    private static final ResolvableType LIST_TYPE = ResolvableType.forClassWithGenerics(List.class, BeerDTO.class);
+
+    @Param({"100"})
+    public int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private Encoder<Object> encoder;
+    private MediaType mediaType;
+    private BeerDTO dto;
+    private List<BeerDTO> list;
+
+    @Setup
+    public void setup() {
+        switch (format) {
+            case "cbor" -> {
+                encoder = new Jackson2CborEncoder(Jackson2ObjectMapperBuilder.cbor().build());
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "smile" -> {
+                encoder = new Jackson2SmileEncoder(Jackson2ObjectMapperBuilder.smile().build());
+                mediaType = new MediaType("application", "x-jackson-smile");
+            }
+            default -> {
+                encoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+        }
+
+        BeerMapperImpl mapper = new BeerMapperImpl();
+        dto = mapper.entityToDto(BeerFixtures.beer(1));
+        list = IntStream.range(0, listSize)
+                .mapToObj(BeerFixtures::beer)
+                .map(mapper::entityToDto)
+                .toList();
+
+        System.out.printf("%n%s%s list of %d: %d bytes%n", format, gzip ? "+gzip" : "", listSize, encodeList());
+    }
+
+    @Benchmark
+    public int encodeOne() {
+        return encode(dto, BEER_TYPE);
+    }
+
+    @Benchmark
+    public int encodeList() {
+        return encode(list, LIST_TYPE);
+    }
+
+    private int encode(Object value, ResolvableType type) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, type, mediaType, Map.of());
+
+        try {
+            return gzip ? gzippedSize(buffer) : buffer.readableByteCount();
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static int gzippedSize(DataBuffer buffer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(buffer.readableByteCount());
+
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            buffer.asInputStream().transferTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.size();
+    }
+}
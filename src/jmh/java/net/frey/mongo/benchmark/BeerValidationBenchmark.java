@@ -0,0 +1,59 @@
+package net.frey.mongo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.frey.mongo.mapper.BeerMapperImpl;
+import net.frey.mongo.model.BeerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/** Mirrors {@code BeerHandler.validate}: a fresh binding result per call, then a Bean Validation pass. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeerValidationBenchmark {
+    private LocalValidatorFactoryBean validator;
+    private BeerDTO valid;
+    private BeerDTO invalid;
+
+    @Setup
+    public void setup() {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+
+        valid = new BeerMapperImpl().entityToDto(BeerFixtures.beer(1));
+        invalid = new BeerMapperImpl().entityToDto(BeerFixtures.beer(2));
+        invalid.setBeerName("");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    @Benchmark
+    public boolean validBeer() {
+        return validate(valid);
+    }
+
+    @Benchmark
+    public boolean invalidBeer() {
+        return validate(invalid);
+    }
+
+    private boolean validate(BeerDTO dto) {
+        Errors errors = new BeanPropertyBindingResult(dto, "beerDto");
+
+        validator.validate(dto, errors);
+
+        return errors.hasErrors();
+    }
+}
@@ -0,0 +1,281 @@
+package net.frey.mongo.loadtest;
+
+import static net.frey.mongo.endpoint.BeerHandler.BEER_PATH;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import net.frey.mongo.Spring6ReactiveMongoApplication;
+import net.frey.mongo.config.Profiles;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.ByteBufMono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Starts the application with the in-memory repositories and drives a mixed GET/POST/PATCH/DELETE workload against it
+ * over Reactor Netty, then reports throughput and latency percentiles per operation.
+ *
+ * <p>Settings are read from system properties ({@code ./gradlew loadTest -PloadTest.concurrency=128}):
+ * {@code loadTest.concurrency}, {@code loadTest.warmup} and {@code loadTest.duration} (ISO-8601 or seconds),
+ * {@code loadTest.seed} (beers created before the run for reads and again as a pool for deletes) and
+ * {@code loadTest.report} (output file).
+ */
+public class LoadTest {
+    private static final String TOKEN = "Bearer load-test";
+
+    private final HttpClient client;
+    private final int concurrency;
+    private List<String> beerIds = List.of();
+    private final ConcurrentLinkedQueue<String> deletable = new ConcurrentLinkedQueue<>();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LoadTest(int port, int concurrency) {
+        this.concurrency = concurrency;
+        this.client = HttpClient.create(ConnectionProvider.builder("load-test")
+                        .maxConnections(concurrency)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add(HttpHeaderNames.AUTHORIZATION, TOKEN));
+
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int concurrency = Integer.getInteger("loadTest.concurrency", 64);
+        int seed = Integer.getInteger("loadTest.seed", 1000);
+        Duration warmup = duration("loadTest.warmup", Duration.ofSeconds(10));
+        Duration duration = duration("loadTest.duration", Duration.ofSeconds(30));
+        Path report = Path.of(System.getProperty("loadTest.report", "build/reports/load-test.txt"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Spring6ReactiveMongoApplication.class)
+                .profiles(Profiles.IN_MEMORY)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run(args);
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest loadTest = new LoadTest(port, concurrency);
+
+            loadTest.seed(seed);
+            loadTest.run(warmup);
+            loadTest.reset();
+
+            Instant start = Instant.now();
+            loadTest.run(duration);
+            Duration elapsed = Duration.between(start, Instant.now());
+
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(report))) {
+                loadTest.report(out, elapsed);
+            }
+            loadTest.report(System.out, elapsed);
+        } finally {
+            context.close();
+        }
+    }
+
+    /** Creates {@code count} beers to read and patch, and as many again queued to be deleted. */
+    void seed(int count) {
+        beerIds = Flux.range(0, count)
+                .flatMap(i -> postBeer(), concurrency)
+                .collectList()
+                .block();
+        deletable.clear();
+        Flux.range(0, count).flatMap(i -> postBeer(), concurrency).blockLast();
+    }
+
+    void run(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        Flux.range(0, concurrency)
+                .flatMap(worker -> Mono.defer(this::next).repeat(() -> System.nanoTime() < deadline), concurrency)
+                .blockLast();
+    }
+
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    void report(PrintStream out, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        Histogram total = new Histogram(3);
+
+        out.printf("concurrency=%d duration=%.1fs%n", concurrency, seconds);
+        out.printf(
+                "%-8s %10s %10s %8s %10s %10s %10s %10s%n",
+                "op",
+                "count",
+                "rps",
+                "errors",
+                "p50(ms)",
+                "p99(ms)",
+                "p999(ms)",
+                "max(ms)");
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            total.add(histogram);
+            print(out, operation.name(), histogram, errors.get(operation).sum(), seconds);
+        }
+
+        print(
+                out,
+                "TOTAL",
+                total,
+                errors.values().stream().mapToLong(LongAdder::sum).sum(),
+                seconds);
+    }
+
+    private static void print(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf(
+                "%-8s %10d %10.0f %8d %10.3f %10.3f %10.3f %10.3f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                errors,
+                histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMaxValue() / 1e6);
+    }
+
+    private Mono<Void> next() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+
+        if (roll < 55) {
+            return timed(Operation.GET, getBeer());
+        } else if (roll < 70) {
+            return timed(Operation.LIST, listBeers());
+        } else if (roll < 85) {
+            return timed(Operation.POST, createBeer());
+        } else if (roll < 95) {
+            return timed(Operation.PATCH, patchBeer());
+        }
+
+        String id = deletable.poll();
+
+        if (id != null) {
+            return timed(Operation.DELETE, deleteBeer(id));
+        }
+
+        // should the pool run dry, create the beer untimed so the DELETE share is still issued
+        return postBeer()
+                .doOnNext(deletable::remove)
+                .flatMap(created -> timed(Operation.DELETE, deleteBeer(created)));
+    }
+
+    private Mono<Void> timed(Operation operation, Mono<Integer> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            return request.doOnNext(status -> {
+                        recorders.get(operation).recordValue(System.nanoTime() - start);
+
+                        if (status >= 400) {
+                            errors.get(operation).increment();
+                        }
+                    })
+                    .doOnError(e -> errors.get(operation).increment())
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+        });
+    }
+
+    private Mono<Integer> getBeer() {
+        return client.get().uri(BEER_PATH + "/" + randomBeerId()).responseSingle(LoadTest::status);
+    }
+
+    private Mono<Integer> listBeers() {
+        return client.get().uri(BEER_PATH + "?limit=50").responseSingle(LoadTest::status);
+    }
+
+    private Mono<Integer> createBeer() {
+        return postBeer().map(id -> 201).defaultIfEmpty(500);
+    }
+
+    /** Creates a beer and emits its id, which is also queued for a later DELETE. */
+    private Mono<String> postBeer() {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        String beer = """
+                {"beerName": "Load Test %d", "beerStyle": "Lager", "upc": "%d", "quantityOnHand": 100, "price": 9.99}
+                """.formatted(n, n);
+
+        return client.headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                .post()
+                .uri(BEER_PATH)
+                .send(ByteBufFlux.fromString(Mono.just(beer)))
+                .responseSingle((response, body) -> {
+                    String location = response.responseHeaders().get(HttpHeaderNames.LOCATION);
+
+                    return body.asByteArray().then(Mono.justOrEmpty(location));
+                })
+                .map(location -> location.substring(location.lastIndexOf('/') + 1))
+                .doOnNext(deletable::add);
+    }
+
+    private Mono<Integer> patchBeer() {
+        String patch = "{\"quantityOnHand\": " + ThreadLocalRandom.current().nextInt(1000) + "}";
+
+        return client.headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                .patch()
+                .uri(BEER_PATH + "/" + randomBeerId())
+                .send(ByteBufFlux.fromString(Mono.just(patch)))
+                .responseSingle(LoadTest::status);
+    }
+
+    private Mono<Integer> deleteBeer(String id) {
+        return client.delete().uri(BEER_PATH + "/" + id).responseSingle(LoadTest::status);
+    }
+
+    private static Mono<Integer> status(HttpClientResponse response, ByteBufMono body) {
+        return body.asByteArray().then(Mono.just(response.status().code()));
+    }
+
+    private String randomBeerId() {
+        return beerIds.get(ThreadLocalRandom.current().nextInt(beerIds.size()));
+    }
+
+    private static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    enum Operation {
+        GET,
+        LIST,
+        POST,
+        PATCH,
+        DELETE
+    }
+}
@@ -0,0 +1,168 @@
+package net.frey.mongo.bootstrap;
+
+import com.mongodb.MongoCommandException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.frey.mongo.config.Profiles;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.domain.Customer;
+import net.frey.mongo.repository.NameSearch;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the indexes declared on the domain classes, plus the collated name indexes behind {@link NameSearch}, before
+ * anything else touches the collections. A {@link SyntheticDataLoader} bulk load is the exception: it goes first so
+ * each index is built once over the loaded data. Then asks the server to explain every query shape the repositories
+ * issue so that a missing index shows up at startup rather than as a collection scan under load.
+ */
+@Slf4j
+@Component
+@Profile("!" + Profiles.IN_MEMORY)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class IndexInitializer implements CommandLineRunner {
+    private static final String COLLSCAN = "COLLSCAN";
+
+    private final ReactiveMongoTemplate template;
+
+    @Value("${beer.mongo.index-check:WARN}")
+    private IndexCheck indexCheck;
+
+    @Override
+    public void run(String... args) {
+        ensureIndexes(Beer.class, NameSearch.prefixIndex("beerName"))
+                .then(ensureIndexes(Customer.class, NameSearch.prefixIndex("customerName")))
+                .thenMany(Flux.fromIterable(queryShapes()))
+                .concatMap(this::checkPlan)
+                .blockLast();
+    }
+
+    /** The annotated indexes plus {@code additional} ones that annotations cannot express, such as a collation. */
+    private Mono<Void> ensureIndexes(Class<?> entityClass, IndexDefinition... additional) {
+        IndexResolver resolver = IndexResolver.create(template.getConverter().getMappingContext());
+
+        return Flux.concat(Flux.fromIterable(resolver.resolveIndexFor(entityClass)), Flux.fromArray(additional))
+                .concatMap(index -> template.indexOps(entityClass).ensureIndex(index))
+                .doOnNext(name -> log.info("Ensured index {} on {}", name, template.getCollectionName(entityClass)))
+                .then();
+    }
+
+    private List<QueryShape> queryShapes() {
+        String beers = template.getCollectionName(Beer.class);
+        String customers = template.getCollectionName(Customer.class);
+        Document byId = new Document("_id", 1);
+        Document afterId = new Document("$gt", new ObjectId());
+        Document namePrefix = new Document("$gte", "a").append("$lt", "a\uffff");
+        Document caseInsensitive = NameSearch.CASE_INSENSITIVE.toDocument();
+        Document text = new Document("$text", new Document("$search", "a b"));
+
+        return List.of(
+                new QueryShape(
+                        "BeerRepository.findFirstByBeerName", beers, new Document("beerName", ""), null, null),
+                new QueryShape("BeerRepository.findByBeerStyle", beers, new Document("beerStyle", ""), null, null),
+                new QueryShape("BeerRepository.findAllBy", beers, new Document(), byId, null),
+                new QueryShape(
+                        "BeerRepository.findByIdGreaterThan", beers, new Document("_id", afterId), byId, null),
+                new QueryShape(
+                        "BeerRepository.findByBeerStyleAndIdGreaterThan",
+                        beers,
+                        new Document("beerStyle", "").append("_id", afterId),
+                        byId,
+                        null),
+                new QueryShape(
+                        "BeerRepository.findByBeerNamePrefix",
+                        beers,
+                        new Document("beerName", namePrefix),
+                        new Document("beerName", 1),
+                        caseInsensitive),
+                new QueryShape("BeerRepository.searchText", beers, text, null, null),
+                new QueryShape(
+                        "CustomerRepository.findFirstByCustomerName",
+                        customers,
+                        new Document("customerName", ""),
+                        null,
+                        null),
+                new QueryShape("CustomerRepository.findAllBy", customers, new Document(), byId, null),
+                new QueryShape(
+                        "CustomerRepository.findByIdGreaterThan", customers, new Document("_id", afterId), byId, null),
+                new QueryShape(
+                        "CustomerRepository.findByCustomerNamePrefix",
+                        customers,
+                        new Document("customerName", namePrefix),
+                        new Document("customerName", 1),
+                        caseInsensitive),
+                new QueryShape("CustomerRepository.searchText", customers, text, null, null));
+    }
+
+    private Mono<Void> checkPlan(QueryShape shape) {
+        if (indexCheck == IndexCheck.OFF) {
+            return Mono.empty();
+        }
+
+        Document find = new Document("find", shape.collection()).append("filter", shape.filter());
+
+        if (shape.sort() != null) {
+            find.append("sort", shape.sort());
+        }
+
+        if (shape.collation() != null) {
+            find.append("collation", shape.collation());
+        }
+
+        // a $text query cannot be planned at all without its index, which is as bad as a collection scan
+        return template.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"))
+                .filter(IndexInitializer::isCollectionScan)
+                .map(explain -> "runs as a collection scan")
+                .onErrorResume(
+                        MongoCommandException.class, e -> Mono.just("cannot be planned: " + e.getErrorMessage()))
+                .flatMap(problem -> {
+                    if (indexCheck == IndexCheck.FAIL) {
+                        return Mono.error(new IllegalStateException(shape.name() + " " + problem));
+                    }
+
+                    log.warn("{} {} on {}", shape.name(), problem, shape.collection());
+
+                    return Mono.empty();
+                });
+    }
+
+    private static boolean isCollectionScan(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+
+        return queryPlanner != null && containsStage(queryPlanner.get("winningPlan"), COLLSCAN);
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            return stage.equals(document.get("stage"))
+                    || document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+
+        return false;
+    }
+
+    enum IndexCheck {
+        OFF,
+        WARN,
+        FAIL
+    }
+
+    private record QueryShape(String name, String collection, Document filter, Document sort, Document collation) {}
+}
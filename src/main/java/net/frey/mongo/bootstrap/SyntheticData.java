@@ -0,0 +1,85 @@
+package net.frey.mongo.bootstrap;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.domain.Customer;
+import org.bson.types.ObjectId;
+
+/**
+ * Generates the n-th document of a dataset from nothing but the seed and n, so any slice can be produced on any thread
+ * and the same seed always yields the same collection, ids included. Ids ascend with n, which keeps inserts appending
+ * to the right-hand edge of the {@code _id} index.
+ */
+final class SyntheticData {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int EPOCH_SECONDS = (int) EPOCH.toEpochSecond(ZoneOffset.UTC);
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final List<String> STYLES =
+            List.of("IPA", "Pale Ale", "Stout", "Porter", "Lager", "Pilsner", "Saison", "Sour", "Wheat", "Amber");
+    private static final List<String> ADJECTIVES = List.of(
+            "Galaxy", "Hazy", "Golden", "Midnight", "Crooked", "Wild", "Copper", "Lucky", "Salty", "Velvet", "Rusty",
+            "Sunny");
+    private static final List<String> NOUNS = List.of(
+            "Cat", "Crank", "City", "Harbor", "Fox", "Anchor", "Orchard", "Comet", "Lantern", "Meadow", "Summit",
+            "River");
+    private static final List<String> FIRST_NAMES = List.of(
+            "Bobby", "Joan", "Ada", "Linus", "Grace", "Ken", "Barbara", "Dennis", "Margaret", "Alan", "Frances",
+            "Edsger");
+    private static final List<String> LAST_NAMES = List.of(
+            "Tables", "Rivers", "Lovelace", "Torvalds", "Hopper", "Thompson", "Liskov", "Ritchie", "Hamilton", "Turing",
+            "Allen", "Dijkstra");
+
+    private SyntheticData() {}
+
+    static Beer beer(long seed, long n) {
+        SplittableRandom random = random(seed, n);
+
+        return Beer.builder()
+                .id(id(n))
+                .beerName(pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + n)
+                .beerStyle(pick(random, STYLES))
+                .upc(String.format("%012d", random.nextLong(1_000_000_000_000L)))
+                .quantityOnHand(random.nextInt(500))
+                .price(BigDecimal.valueOf(random.nextInt(399, 3000), 2))
+                .version(0L)
+                .createdDate(EPOCH)
+                .lastModifiedDate(EPOCH)
+                .build();
+    }
+
+    static Customer customer(long seed, long n) {
+        SplittableRandom random = random(seed, n);
+
+        return Customer.builder()
+                .id(id(n))
+                .customerName(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES) + " " + n)
+                .version(0L)
+                .createdDate(EPOCH)
+                .lastModifiedDate(EPOCH)
+                .build();
+    }
+
+    private static String id(long n) {
+        return new ObjectId(ByteBuffer.allocate(12).putInt(EPOCH_SECONDS).putLong(n).array()).toHexString();
+    }
+
+    private static SplittableRandom random(long seed, long n) {
+        return new SplittableRandom(mix(seed ^ mix(n * GOLDEN_GAMMA)));
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,106 @@
+package net.frey.mongo.bootstrap;
+
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.frey.mongo.config.DatasetProperties;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.domain.Customer;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Replaces both collections with a generated dataset of {@code beer.dataset.beers} beers and
+ * {@code beer.dataset.customers} customers. Batches are generated on the parallel scheduler, encoded by the entity
+ * codecs and written with several unordered {@code insertMany} calls in flight. The collections are dropped first and
+ * the loader runs before {@link IndexInitializer}, so secondary indexes are built once over the loaded data instead of
+ * maintained on every insert. Startup blocks until the load has finished, so the application only reports itself ready
+ * once the data is there. Needs MongoDB; it does not apply to the in-memory repositories.
+ */
+@Slf4j
+@Component
+@Profile(SyntheticDataLoader.PROFILE)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SyntheticDataLoader implements CommandLineRunner {
+    public static final String PROFILE = "synthetic-data";
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final ReactiveMongoTemplate template;
+    private final DatasetProperties properties;
+    private final MeterRegistry registry;
+
+    @Override
+    public void run(String... args) {
+        load(Beer.class, properties.beers(), n -> SyntheticData.beer(properties.seed(), n))
+                .then(load(Customer.class, properties.customers(), n -> SyntheticData.customer(properties.seed(), n)))
+                .block();
+    }
+
+    private <E> Mono<Void> load(Class<E> entityClass, long count, LongFunction<E> generator) {
+        String collectionName = template.getCollectionName(entityClass);
+        int batchSize = properties.batchSize();
+        long batches = (count + batchSize - 1) / batchSize;
+
+        return template.dropCollection(entityClass)
+                .then(Mono.fromSupplier(System::nanoTime))
+                .flatMap(start -> Flux.range(0, Math.toIntExact(batches))
+                        .flatMap(
+                                batch -> Mono.fromCallable(() -> generate(batch, batchSize, count, generator))
+                                        .subscribeOn(Schedulers.parallel())
+                                        .flatMap(entities -> insert(collectionName, entityClass, entities)),
+                                properties.concurrency())
+                        .reduce(0L, Long::sum)
+                        .doOnNext(inserted -> report(collectionName, inserted, System.nanoTime() - start)))
+                .then();
+    }
+
+    private static <E> List<E> generate(int batch, int batchSize, long count, LongFunction<E> generator) {
+        long first = (long) batch * batchSize;
+        long last = Math.min(first + batchSize, count);
+        List<E> entities = new ArrayList<>((int) (last - first));
+
+        for (long n = first; n < last; n++) {
+            entities.add(generator.apply(n));
+        }
+
+        return entities;
+    }
+
+    private <E> Mono<Long> insert(String collectionName, Class<E> entityClass, List<E> entities) {
+        return template.getCollection(collectionName)
+                .flatMap(collection ->
+                        Mono.from(collection.withDocumentClass(entityClass).insertMany(entities, UNORDERED)))
+                .map(result -> (long) result.getInsertedIds().size());
+    }
+
+    private void report(String collectionName, long inserted, long elapsedNanos) {
+        double rate = inserted / (Math.max(elapsedNanos, 1) / 1e9);
+
+        Timer.builder("dataset.load")
+                .description("Time taken to load a synthetic collection")
+                .tag("collection", collectionName)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info(
+                "Loaded {} documents into {} in {} ms ({} docs/sec)",
+                inserted,
+                collectionName,
+                elapsedNanos / 1_000_000,
+                Math.round(rate));
+    }
+}
@@ -0,0 +1,99 @@
+package net.frey.mongo.codec;
+
+import static net.frey.mongo.codec.BsonFields.CREATED_DATE;
+import static net.frey.mongo.codec.BsonFields.ID;
+import static net.frey.mongo.codec.BsonFields.LAST_MODIFIED_DATE;
+import static net.frey.mongo.codec.BsonFields.VERSION;
+
+import net.frey.mongo.domain.Beer;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/**
+ * Reads and writes {@link Beer} straight from and to the wire, for the paths that talk to the driver directly (bulk
+ * loads and full-collection exports) and so have no use for an intermediate {@code Document} or reflective mapping.
+ * The layout matches what the mapping converter writes.
+ */
+public final class BeerCodec implements CollectibleCodec<Beer> {
+    static final String BEER_NAME = "beerName";
+    static final String BEER_STYLE = "beerStyle";
+    static final String UPC = "upc";
+    static final String QUANTITY_ON_HAND = "quantityOnHand";
+    static final String PRICE = "price";
+
+    @Override
+    public void encode(BsonWriter writer, Beer beer, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+
+        if (beer.getId() != null) {
+            BsonFields.writeId(writer, beer.getId());
+        }
+
+        BsonFields.writeString(writer, BEER_NAME, beer.getBeerName());
+        BsonFields.writeString(writer, BEER_STYLE, beer.getBeerStyle());
+        BsonFields.writeString(writer, UPC, beer.getUpc());
+        BsonFields.writeInt32(writer, QUANTITY_ON_HAND, beer.getQuantityOnHand());
+        BsonFields.writeDecimal(writer, PRICE, beer.getPrice());
+        BsonFields.writeInt64(writer, VERSION, beer.getVersion());
+        BsonFields.writeDateTime(writer, CREATED_DATE, beer.getCreatedDate());
+        BsonFields.writeDateTime(writer, LAST_MODIFIED_DATE, beer.getLastModifiedDate());
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Beer decode(BsonReader reader, DecoderContext decoderContext) {
+        Beer beer = new Beer();
+
+        reader.readStartDocument();
+
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case ID -> beer.setId(BsonFields.readId(reader));
+                case BEER_NAME -> beer.setBeerName(BsonFields.readString(reader));
+                case BEER_STYLE -> beer.setBeerStyle(BsonFields.readString(reader));
+                case UPC -> beer.setUpc(BsonFields.readString(reader));
+                case QUANTITY_ON_HAND -> beer.setQuantityOnHand(BsonFields.readInteger(reader));
+                case PRICE -> beer.setPrice(BsonFields.readDecimal(reader));
+                case VERSION -> beer.setVersion(BsonFields.readLong(reader));
+                case CREATED_DATE -> beer.setCreatedDate(BsonFields.readDateTime(reader));
+                case LAST_MODIFIED_DATE -> beer.setLastModifiedDate(BsonFields.readDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.readEndDocument();
+
+        return beer;
+    }
+
+    @Override
+    public Class<Beer> getEncoderClass() {
+        return Beer.class;
+    }
+
+    @Override
+    public Beer generateIdIfAbsentFromDocument(Beer beer) {
+        if (beer.getId() == null) {
+            beer.setId(new ObjectId().toHexString());
+        }
+
+        return beer;
+    }
+
+    @Override
+    public boolean documentHasId(Beer beer) {
+        return beer.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(Beer beer) {
+        return BsonFields.idValue(beer.getId());
+    }
+}
@@ -0,0 +1,161 @@
+package net.frey.mongo.codec;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+
+/**
+ * Field-level conversions shared by the codecs and reading converters. They read what the reflective converter writes
+ * (string ids that look like ObjectIds become ObjectIds, dates are interpreted in the system zone), and prices stored
+ * as strings or doubles before the move to {@code Decimal128} still read back.
+ */
+final class BsonFields {
+    static final String ID = "_id";
+    static final String VERSION = "version";
+    static final String CREATED_DATE = "createdDate";
+    static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+
+    private BsonFields() {}
+
+    static String id(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        return value instanceof ObjectId objectId ? objectId.toHexString() : value.toString();
+    }
+
+    static BigDecimal decimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+
+        return value instanceof Number number ? new BigDecimal(number.toString()) : new BigDecimal(value.toString());
+    }
+
+    static Integer integer(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    static Long longValue(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    static LocalDateTime dateTime(Object value) {
+        return value == null ? null : dateTime(((Date) value).getTime());
+    }
+
+    static LocalDateTime dateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static BsonValue idValue(String id) {
+        return ObjectId.isValid(id) ? new BsonObjectId(new ObjectId(id)) : new BsonString(id);
+    }
+
+    static void writeId(BsonWriter writer, String id) {
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(ID, new ObjectId(id));
+        } else {
+            writer.writeString(ID, id);
+        }
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static void writeInt32(BsonWriter writer, String name, Integer value) {
+        if (value != null) {
+            writer.writeInt32(name, value);
+        }
+    }
+
+    static void writeInt64(BsonWriter writer, String name, Long value) {
+        if (value != null) {
+            writer.writeInt64(name, value);
+        }
+    }
+
+    static void writeDecimal(BsonWriter writer, String name, BigDecimal value) {
+        if (value != null) {
+            writer.writeDecimal128(name, new Decimal128(value));
+        }
+    }
+
+    static void writeDateTime(BsonWriter writer, String name, LocalDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, millis(value));
+        }
+    }
+
+    /** Reads the current value, or returns {@code null} for a BSON null. */
+    static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case NULL -> readNull(reader);
+            default -> reader.readString();
+        };
+    }
+
+    static String readString(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.NULL ? readNull(reader) : reader.readString();
+    }
+
+    static Integer readInteger(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> Math.toIntExact(reader.readInt64());
+            case DOUBLE -> (int) reader.readDouble();
+            default -> readNull(reader);
+        };
+    }
+
+    static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT64 -> reader.readInt64();
+            case INT32 -> (long) reader.readInt32();
+            default -> readNull(reader);
+        };
+    }
+
+    static BigDecimal readDecimal(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case DECIMAL128 -> reader.readDecimal128().bigDecimalValue();
+            case STRING -> new BigDecimal(reader.readString());
+            case DOUBLE -> BigDecimal.valueOf(reader.readDouble());
+            case INT32 -> BigDecimal.valueOf(reader.readInt32());
+            case INT64 -> BigDecimal.valueOf(reader.readInt64());
+            default -> readNull(reader);
+        };
+    }
+
+    static LocalDateTime readDateTime(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.DATE_TIME ? dateTime(reader.readDateTime()) : readNull(reader);
+    }
+
+    private static <T> T readNull(BsonReader reader) {
+        reader.readNull();
+        return null;
+    }
+}
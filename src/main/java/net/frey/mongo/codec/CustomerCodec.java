@@ -0,0 +1,83 @@
+package net.frey.mongo.codec;
+
+import static net.frey.mongo.codec.BsonFields.CREATED_DATE;
+import static net.frey.mongo.codec.BsonFields.ID;
+import static net.frey.mongo.codec.BsonFields.LAST_MODIFIED_DATE;
+import static net.frey.mongo.codec.BsonFields.VERSION;
+
+import net.frey.mongo.domain.Customer;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+/** The {@link Customer} counterpart of {@link BeerCodec}. */
+public final class CustomerCodec implements CollectibleCodec<Customer> {
+    static final String CUSTOMER_NAME = "customerName";
+
+    @Override
+    public void encode(BsonWriter writer, Customer customer, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+
+        if (customer.getId() != null) {
+            BsonFields.writeId(writer, customer.getId());
+        }
+
+        BsonFields.writeString(writer, CUSTOMER_NAME, customer.getCustomerName());
+        BsonFields.writeInt64(writer, VERSION, customer.getVersion());
+        BsonFields.writeDateTime(writer, CREATED_DATE, customer.getCreatedDate());
+        BsonFields.writeDateTime(writer, LAST_MODIFIED_DATE, customer.getLastModifiedDate());
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Customer decode(BsonReader reader, DecoderContext decoderContext) {
+        Customer customer = new Customer();
+
+        reader.readStartDocument();
+
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case ID -> customer.setId(BsonFields.readId(reader));
+                case CUSTOMER_NAME -> customer.setCustomerName(BsonFields.readString(reader));
+                case VERSION -> customer.setVersion(BsonFields.readLong(reader));
+                case CREATED_DATE -> customer.setCreatedDate(BsonFields.readDateTime(reader));
+                case LAST_MODIFIED_DATE -> customer.setLastModifiedDate(BsonFields.readDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+
+        reader.readEndDocument();
+
+        return customer;
+    }
+
+    @Override
+    public Class<Customer> getEncoderClass() {
+        return Customer.class;
+    }
+
+    @Override
+    public Customer generateIdIfAbsentFromDocument(Customer customer) {
+        if (customer.getId() == null) {
+            customer.setId(new ObjectId().toHexString());
+        }
+
+        return customer;
+    }
+
+    @Override
+    public boolean documentHasId(Customer customer) {
+        return customer.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(Customer customer) {
+        return BsonFields.idValue(customer.getId());
+    }
+}
@@ -0,0 +1,41 @@
+package net.frey.mongo.codec;
+
+import static net.frey.mongo.codec.BeerCodec.BEER_NAME;
+import static net.frey.mongo.codec.BeerCodec.BEER_STYLE;
+import static net.frey.mongo.codec.BeerCodec.PRICE;
+import static net.frey.mongo.codec.BeerCodec.QUANTITY_ON_HAND;
+import static net.frey.mongo.codec.BeerCodec.UPC;
+import static net.frey.mongo.codec.BsonFields.CREATED_DATE;
+import static net.frey.mongo.codec.BsonFields.ID;
+import static net.frey.mongo.codec.BsonFields.LAST_MODIFIED_DATE;
+import static net.frey.mongo.codec.BsonFields.VERSION;
+
+import net.frey.mongo.domain.Beer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/**
+ * Replaces reflective entity instantiation when repositories and the template read a {@link Beer}. Only reads are
+ * customised: registering a writing converter would turn {@code Beer} into a simple type and take it out of the mapping
+ * context that versioning, auditing and query mapping rely on. Fields missing from a projected document stay null.
+ */
+@ReadingConverter
+public enum DocumentToBeerConverter implements Converter<Document, Beer> {
+    INSTANCE;
+
+    @Override
+    public Beer convert(Document source) {
+        return Beer.builder()
+                .id(BsonFields.id(source.get(ID)))
+                .beerName(source.getString(BEER_NAME))
+                .beerStyle(source.getString(BEER_STYLE))
+                .upc(source.getString(UPC))
+                .quantityOnHand(BsonFields.integer(source.get(QUANTITY_ON_HAND)))
+                .price(BsonFields.decimal(source.get(PRICE)))
+                .version(BsonFields.longValue(source.get(VERSION)))
+                .createdDate(BsonFields.dateTime(source.get(CREATED_DATE)))
+                .lastModifiedDate(BsonFields.dateTime(source.get(LAST_MODIFIED_DATE)))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package net.frey.mongo.codec;
+
+import static net.frey.mongo.codec.BsonFields.CREATED_DATE;
+import static net.frey.mongo.codec.BsonFields.ID;
+import static net.frey.mongo.codec.BsonFields.LAST_MODIFIED_DATE;
+import static net.frey.mongo.codec.BsonFields.VERSION;
+import static net.frey.mongo.codec.CustomerCodec.CUSTOMER_NAME;
+
+import net.frey.mongo.domain.Customer;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/** The {@link Customer} counterpart of {@link DocumentToBeerConverter}. */
+@ReadingConverter
+public enum DocumentToCustomerConverter implements Converter<Document, Customer> {
+    INSTANCE;
+
+    @Override
+    public Customer convert(Document source) {
+        return Customer.builder()
+                .id(BsonFields.id(source.get(ID)))
+                .customerName(source.getString(CUSTOMER_NAME))
+                .version(BsonFields.longValue(source.get(VERSION)))
+                .createdDate(BsonFields.dateTime(source.get(CREATED_DATE)))
+                .lastModifiedDate(BsonFields.dateTime(source.get(LAST_MODIFIED_DATE)))
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package net.frey.mongo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "beer.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(AdmissionProperties properties, MeterRegistry registry) {
+        return new AdmissionControlFilter(properties, registry);
+    }
+}
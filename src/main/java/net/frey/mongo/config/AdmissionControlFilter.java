@@ -0,0 +1,186 @@
+package net.frey.mongo.config;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sheds load before it reaches the Mongo connection pool. Each API request must first pass its client's token bucket,
+ * keyed by JWT subject, and is otherwise answered with 429; it then needs a slot under the adaptive concurrency limit
+ * for its class (reads or writes), and is otherwise answered with 503. Both rejections carry {@code Retry-After} and
+ * cost nothing downstream. Change feeds stay open indefinitely, so opening one is rate limited but never takes a
+ * concurrency slot. Runs after the security filter chain so the subject is known.
+ */
+public class AdmissionControlFilter implements WebFilter {
+    static final String API_PATH_PREFIX = "/api/";
+    static final String CHANGES_PATH_SUFFIX = "/changes";
+    static final String EXPORT_PATH_SUFFIX = "/export";
+
+    private final AdmissionProperties properties;
+    private final RequestClass reads;
+    private final RequestClass writes;
+    private final Cache<String, TokenBucket> buckets;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.reads = requestClass("read", properties.read(), properties, registry);
+        this.writes = requestClass("write", properties.write(), properties, registry);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        if (!request.getPath().value().startsWith(API_PATH_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        RequestClass requestClass = isRead(request.getMethod()) ? reads : writes;
+
+        if (requestClass.limits().clientRate() <= 0) {
+            return admit(exchange, chain, requestClass);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(subject -> {
+                    long waitNanos = bucket(requestClass, subject).tryConsume();
+
+                    if (waitNanos > 0) {
+                        requestClass.throttled().increment();
+                        return reject(exchange, TOO_MANY_REQUESTS, Duration.ofNanos(waitNanos));
+                    }
+
+                    return admit(exchange, chain, requestClass);
+                });
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, RequestClass requestClass) {
+        if (exchange.getRequest().getPath().value().endsWith(CHANGES_PATH_SUFFIX)) {
+            return chain.filter(exchange);
+        }
+
+        AimdLimiter limiter = requestClass.limiter();
+
+        if (!limiter.tryAcquire()) {
+            requestClass.shed().increment();
+            return reject(exchange, SERVICE_UNAVAILABLE, properties.retryAfter());
+        }
+
+        boolean streaming = isStreaming(exchange.getRequest());
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doOnSuccess(done -> release(limiter, streaming, start, isServerError(exchange.getResponse())))
+                .doOnError(error -> release(limiter, streaming, start, isServerError(error)))
+                .doOnCancel(limiter::onIgnore);
+    }
+
+    private static void release(AimdLimiter limiter, boolean streaming, long start, boolean failed) {
+        if (streaming) {
+            limiter.onIgnore();
+        } else if (failed) {
+            limiter.onFailure();
+        } else {
+            limiter.onSuccess(System.nanoTime() - start);
+        }
+    }
+
+    private TokenBucket bucket(RequestClass requestClass, String subject) {
+        AdmissionProperties.Limits limits = requestClass.limits();
+        int capacity = Math.max(limits.clientBurst(), (int) Math.ceil(limits.clientRate()));
+
+        return buckets.get(
+                requestClass.name() + ':' + subject, key -> new TokenBucket(capacity, limits.clientRate()));
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, Duration retryAfter) {
+        ServerHttpResponse response = exchange.getResponse();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfter.toNanos() + 999_999_999));
+
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+
+        return response.setComplete();
+    }
+
+    private static boolean isRead(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+
+    private static boolean isStreaming(ServerHttpRequest request) {
+        if (request.getPath().value().endsWith(EXPORT_PATH_SUFFIX)) {
+            return true;
+        }
+
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(type ->
+                        type.equalsTypeAndSubtype(APPLICATION_NDJSON) || type.equalsTypeAndSubtype(TEXT_EVENT_STREAM));
+    }
+
+    private static boolean isServerError(ServerHttpResponse response) {
+        return response.getStatusCode() != null && response.getStatusCode().is5xxServerError();
+    }
+
+    private static boolean isServerError(Throwable error) {
+        return !(error instanceof ResponseStatusException e) || e.getStatusCode().is5xxServerError();
+    }
+
+    private static RequestClass requestClass(
+            String name, AdmissionProperties.Limits limits, AdmissionProperties properties, MeterRegistry registry) {
+        AimdLimiter limiter = new AimdLimiter(
+                limits.initialLimit(),
+                limits.minLimit(),
+                limits.maxLimit(),
+                properties.targetLatency().toNanos(),
+                properties.backoffRatio());
+
+        Gauge.builder("admission.limit", limiter, AimdLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", name)
+                .register(registry);
+        Gauge.builder("admission.in.flight", limiter, AimdLimiter::inFlight)
+                .description("Admitted requests that have not completed yet")
+                .tag("class", name)
+                .register(registry);
+
+        return new RequestClass(
+                name, limits, limiter, rejections(registry, name, "limit"), rejections(registry, name, "rate"));
+    }
+
+    private static Counter rejections(MeterRegistry registry, String requestClass, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requests turned away before reaching a handler")
+                .tag("class", requestClass)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private record RequestClass(
+            String name, AdmissionProperties.Limits limits, AimdLimiter limiter, Counter shed, Counter throttled) {}
+}
@@ -0,0 +1,27 @@
+package net.frey.mongo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("250ms") Duration targetLatency,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("10000") long maxClients,
+        @DefaultValue Limits read,
+        @DefaultValue Limits write) {
+
+    /**
+     * Concurrency bounds for one class of requests, and the optional per-client token bucket: {@code clientRate}
+     * requests per second with bursts of up to {@code clientBurst}. A rate of zero disables the bucket.
+     */
+    public record Limits(
+            @DefaultValue("100") int initialLimit,
+            @DefaultValue("10") int minLimit,
+            @DefaultValue("500") int maxLimit,
+            @DefaultValue("0") double clientRate,
+            @DefaultValue("0") int clientBurst) {}
+}
@@ -0,0 +1,75 @@
+package net.frey.mongo.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit. The limit grows by one for every request that completes within the target latency while
+ * at least half the limit is in use, and shrinks by the backoff ratio whenever a request is slower than the target or
+ * fails, so it settles just below the concurrency at which the database starts queueing.
+ */
+public class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= limit) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Releases a slot after a completed request and feeds its latency back into the limit. */
+    public void onSuccess(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+
+        if (latencyNanos > targetNanos) {
+            backOff();
+        } else if (inFlightBefore * 2 >= limit) {
+            synchronized (this) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public void onFailure() {
+        inFlight.decrementAndGet();
+        backOff();
+    }
+
+    /** Releases a slot without a latency sample, for cancelled requests and long-lived streams. */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void backOff() {
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+    }
+}
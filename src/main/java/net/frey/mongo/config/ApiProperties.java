@@ -0,0 +1,7 @@
+package net.frey.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.api")
+public record ApiProperties(@DefaultValue("100") int maxIds) {}
@@ -0,0 +1,36 @@
+package net.frey.mongo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.model.CustomerDTO;
+import net.frey.mongo.service.ReadThroughCache;
+import net.frey.mongo.service.SingleFlight;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+    @Bean
+    public ReadThroughCache<BeerDTO> beerCache(DtoCacheProperties properties, MeterRegistry registry) {
+        ReadThroughCache<BeerDTO> cache = new ReadThroughCache<>(properties.maximumSize(), properties.ttl());
+        cache.bindTo(registry, "beer");
+
+        return cache;
+    }
+
+    @Bean
+    public ReadThroughCache<CustomerDTO> customerCache(DtoCacheProperties properties, MeterRegistry registry) {
+        ReadThroughCache<CustomerDTO> cache = new ReadThroughCache<>(properties.maximumSize(), properties.ttl());
+        cache.bindTo(registry, "customer");
+
+        return cache;
+    }
+
+    @Bean
+    public SingleFlight beerQueries(MeterRegistry registry) {
+        SingleFlight queries = new SingleFlight();
+        queries.bindTo(registry, "beer");
+
+        return queries;
+    }
+}
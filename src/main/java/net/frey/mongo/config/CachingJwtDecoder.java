@@ -0,0 +1,93 @@
+package net.frey.mongo.config;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps successfully verified tokens, keyed by their SHA-256, so a client that sends the same bearer token on every
+ * request pays for signature verification once. An entry never outlives the token's {@code exp} claim. Concurrent
+ * requests carrying the same unseen token share one verification, and failures are never cached.
+ */
+public class CachingJwtDecoder implements ReactiveJwtDecoder {
+    private final ReactiveJwtDecoder delegate;
+    private final AsyncCache<String, Jwt> cache;
+    private final MeterRegistry registry;
+    private final Timer verification;
+
+    public CachingJwtDecoder(ReactiveJwtDecoder delegate, JwtCacheProperties properties, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new UntilExpiry(properties.maxTtl()))
+                .recordStats()
+                .buildAsync();
+        this.verification = Timer.builder("security.jwt.verification")
+                .description("Time spent decoding and verifying bearer tokens on a cache miss")
+                .register(registry);
+
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "jwt");
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return Mono.defer(() -> Mono.fromFuture(
+                cache.get(hash(token), (key, executor) -> verify(token).toFuture()).copy()));
+    }
+
+    private Mono<Jwt> verify(String token) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+
+            return delegate.decode(token).doFinally(signal -> sample.stop(verification));
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record UntilExpiry(Duration maxTtl) implements Expiry<String, Jwt> {
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+
+            if (expiresAt == null) {
+                return maxTtl.toNanos();
+            }
+
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+
+            return Math.max(0, Math.min(remaining.toNanos(), maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
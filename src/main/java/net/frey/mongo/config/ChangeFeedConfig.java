@@ -0,0 +1,50 @@
+package net.frey.mongo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.domain.Customer;
+import net.frey.mongo.mapper.BeerMapper;
+import net.frey.mongo.mapper.CustomerMapper;
+import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.model.CustomerDTO;
+import net.frey.mongo.service.ChangeFeed;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+@Configuration
+public class ChangeFeedConfig {
+    @Bean
+    public ChangeFeed<Beer, BeerDTO> beerChangeFeed(
+            ReactiveMongoTemplate template,
+            BeerMapper mapper,
+            ChangeFeedProperties properties,
+            MeterRegistry registry) {
+        ChangeFeed<Beer, BeerDTO> feed = new ChangeFeed<>(
+                template,
+                Beer.class,
+                mapper::entityToDto,
+                properties.subscriberBuffer(),
+                properties.maxReconnectBackoff());
+        feed.bindTo(registry, "beer");
+
+        return feed;
+    }
+
+    @Bean
+    public ChangeFeed<Customer, CustomerDTO> customerChangeFeed(
+            ReactiveMongoTemplate template,
+            CustomerMapper mapper,
+            ChangeFeedProperties properties,
+            MeterRegistry registry) {
+        ChangeFeed<Customer, CustomerDTO> feed = new ChangeFeed<>(
+                template,
+                Customer.class,
+                mapper::entityToDto,
+                properties.subscriberBuffer(),
+                properties.maxReconnectBackoff());
+        feed.bindTo(registry, "customer");
+
+        return feed;
+    }
+}
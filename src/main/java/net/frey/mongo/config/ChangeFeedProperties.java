@@ -0,0 +1,9 @@
+package net.frey.mongo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.changes")
+public record ChangeFeedProperties(
+        @DefaultValue("256") int subscriberBuffer, @DefaultValue("30s") Duration maxReconnectBackoff) {}
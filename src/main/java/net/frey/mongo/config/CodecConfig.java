@@ -0,0 +1,35 @@
+package net.frey.mongo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Lets clients negotiate {@code application/cbor} or {@code application/x-jackson-smile} instead of JSON. Both binary
+ * mappers are built from the application's Jackson settings, so they serialize the DTOs exactly as the JSON one does.
+ * JSON stays the default when a client does not ask for anything else.
+ */
+@Configuration
+public class CodecConfig {
+    @Bean
+    public CodecCustomizer binaryJacksonCodecs(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper cbor = builders.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smile = builders.getObject().factory(new SmileFactory()).build();
+
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile));
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package net.frey.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.dataset")
+public record DatasetProperties(
+        @DefaultValue("1000000") long beers,
+        @DefaultValue("100000") long customers,
+        @DefaultValue("42") long seed,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("8") int concurrency) {}
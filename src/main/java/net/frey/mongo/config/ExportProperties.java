@@ -0,0 +1,7 @@
+package net.frey.mongo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.export")
+public record ExportProperties(@DefaultValue("1000") int cursorBatchSize, @DefaultValue("256") int rowsPerChunk) {}
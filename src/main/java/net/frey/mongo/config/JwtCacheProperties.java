@@ -0,0 +1,8 @@
+package net.frey.mongo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.jwt-cache")
+public record JwtCacheProperties(@DefaultValue("10000") long maximumSize, @DefaultValue("5m") Duration maxTtl) {}
@@ -0,0 +1,37 @@
+package net.frey.mongo.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.mongo.client")
+public record MongoClientProperties(
+        @DefaultValue("127.0.0.1") String host,
+        @DefaultValue("27017") int port,
+        @DefaultValue("beer") String database,
+        @DefaultValue("root") String username,
+        @DefaultValue("example") String password,
+        @DefaultValue("admin") String authenticationDatabase,
+        @DefaultValue Pool pool,
+        @DefaultValue Timeouts timeouts,
+        @DefaultValue List<Compressor> compressors,
+        @DefaultValue("5s") Duration maxTime) {
+
+    public record Pool(
+            @DefaultValue("0") int minSize,
+            @DefaultValue("100") int maxSize,
+            @DefaultValue("2m") Duration maxWaitTime,
+            @DefaultValue("0s") Duration maxConnectionIdleTime) {}
+
+    public record Timeouts(
+            @DefaultValue("10s") Duration connect,
+            @DefaultValue("0s") Duration socket,
+            @DefaultValue("30s") Duration serverSelection) {}
+
+    public enum Compressor {
+        ZSTD,
+        SNAPPY,
+        ZLIB
+    }
+}
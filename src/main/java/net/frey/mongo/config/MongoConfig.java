@@ -1,34 +1,102 @@
 package net.frey.mongo.config;
 
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
 import com.mongodb.MongoCredential;
 import com.mongodb.ServerAddress;
-import com.mongodb.reactivestreams.client.MongoClient;
-import com.mongodb.reactivestreams.client.MongoClients;
-import org.springframework.context.annotation.Bean;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.frey.mongo.codec.BeerCodec;
+import net.frey.mongo.codec.CustomerCodec;
+import net.frey.mongo.codec.DocumentToBeerConverter;
+import net.frey.mongo.codec.DocumentToCustomerConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractReactiveMongoConfiguration;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions.MongoConverterConfigurationAdapter;
 import org.springframework.lang.NonNull;
 
+@Slf4j
 @Configuration
+@EnableReactiveMongoAuditing
+@RequiredArgsConstructor
 public class MongoConfig extends AbstractReactiveMongoConfiguration {
-    @Bean
-    public MongoClient mongoClient() {
-        return MongoClients.create();
-    }
+    private final ObjectProvider<MongoMetricsCommandListener> commandMetrics;
+    private final ObjectProvider<MongoMetricsConnectionPoolListener> poolMetrics;
+    private final MongoMetricsProperties metricsProperties;
+    private final MongoClientProperties clientProperties;
 
     @NonNull
     @Override
     protected String getDatabaseName() {
-        return "beer";
+        return clientProperties.database();
+    }
+
+    @Override
+    protected MongoClientSettings mongoClientSettings() {
+        MongoClientSettings settings = super.mongoClientSettings();
+
+        log.info(
+                "Mongo client: {}, {}, {}, compressors {}",
+                settings.getClusterSettings(),
+                settings.getConnectionPoolSettings(),
+                settings.getSocketSettings(),
+                settings.getCompressorList());
+
+        return settings;
     }
 
     @Override
     protected void configureClientSettings(MongoClientSettings.Builder builder) {
-        builder.credential(MongoCredential.createCredential("root", "admin", "example".toCharArray()))
-                .applyToClusterSettings(
-                        settings -> settings.hosts((singletonList(new ServerAddress("127.0.0.1", 27017)))));
+        MongoClientProperties.Pool pool = clientProperties.pool();
+        MongoClientProperties.Timeouts timeouts = clientProperties.timeouts();
+
+        builder.credential(MongoCredential.createCredential(
+                        clientProperties.username(),
+                        clientProperties.authenticationDatabase(),
+                        clientProperties.password().toCharArray()))
+                .applyToClusterSettings(settings -> settings.hosts(
+                                singletonList(new ServerAddress(clientProperties.host(), clientProperties.port())))
+                        .serverSelectionTimeout(timeouts.serverSelection().toMillis(), MILLISECONDS))
+                .applyToConnectionPoolSettings(settings -> settings.minSize(pool.minSize())
+                        .maxSize(pool.maxSize())
+                        .maxWaitTime(pool.maxWaitTime().toMillis(), MILLISECONDS)
+                        .maxConnectionIdleTime(pool.maxConnectionIdleTime().toMillis(), MILLISECONDS))
+                .applyToSocketSettings(settings -> settings.connectTimeout(
+                                (int) timeouts.connect().toMillis(), MILLISECONDS)
+                        .readTimeout((int) timeouts.socket().toMillis(), MILLISECONDS))
+                .compressorList(clientProperties.compressors().stream()
+                        .map(MongoConfig::compressor)
+                        .toList())
+                .codecRegistry(fromRegistries(
+                        fromCodecs(new BeerCodec(), new CustomerCodec()),
+                        MongoClientSettings.getDefaultCodecRegistry()))
+                .addCommandListener(new SlowCommandListener(metricsProperties.slowQueryThreshold()));
+
+        commandMetrics.ifAvailable(builder::addCommandListener);
+        poolMetrics.ifAvailable(
+                listener -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener)));
+    }
+
+    @Override
+    protected void configureConverters(MongoConverterConfigurationAdapter adapter) {
+        adapter.registerConverter(DocumentToBeerConverter.INSTANCE);
+        adapter.registerConverter(DocumentToCustomerConverter.INSTANCE);
+    }
+
+    private static MongoCompressor compressor(MongoClientProperties.Compressor compressor) {
+        return switch (compressor) {
+            case ZSTD -> MongoCompressor.createZstdCompressor();
+            case SNAPPY -> MongoCompressor.createSnappyCompressor();
+            case ZLIB -> MongoCompressor.createZlibCompressor();
+        };
     }
 }
@@ -0,0 +1,8 @@
+package net.frey.mongo.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("beer.mongo.metrics")
+public record MongoMetricsProperties(@DefaultValue("100ms") Duration slowQueryThreshold) {}
@@ -0,0 +1,12 @@
+package net.frey.mongo.config;
+
+/** Profile names that production code has to refer to without depending on the classes they activate. */
+public final class Profiles {
+    /**
+     * Runs the API against in-memory repositories with any bearer token accepted. The beans behind it live in the
+     * {@code inMemory} source set, which only the benchmarks and the load test put on their classpath.
+     */
+    public static final String IN_MEMORY = "in-memory";
+
+    private Profiles() {}
+}
@@ -1,9 +1,18 @@
 package net.frey.mongo.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoders;
+import org.springframework.security.oauth2.jwt.SupplierReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @Configuration
@@ -14,6 +23,8 @@ public class SecurityConfig {
         security.csrf()
                 .disable()
                 .authorizeExchange()
+                .matchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class))
+                .permitAll()
                 .anyExchange()
                 .authenticated()
                 .and()
@@ -22,4 +33,16 @@ public class SecurityConfig {
 
         return security.build();
     }
+
+    @Bean
+    @Profile("!" + Profiles.IN_MEMORY)
+    ReactiveJwtDecoder jwtDecoder(
+            OAuth2ResourceServerProperties properties, JwtCacheProperties cacheProperties, MeterRegistry registry) {
+        String issuerUri = properties.getJwt().getIssuerUri();
+
+        return new CachingJwtDecoder(
+                new SupplierReactiveJwtDecoder(() -> ReactiveJwtDecoders.fromIssuerLocation(issuerUri)),
+                cacheProperties,
+                registry);
+    }
 }
@@ -0,0 +1,61 @@
+package net.frey.mongo.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+
+/**
+ * Logs driver commands that take longer than a threshold. Only the command name and its target collection are kept
+ * while a command is in flight; the command document itself is only valid inside the started callback.
+ */
+@Slf4j
+public class SlowCommandListener implements CommandListener {
+    private final long thresholdNanos;
+    private final Map<Integer, String> inFlight = new ConcurrentHashMap<>();
+
+    public SlowCommandListener(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : "";
+
+        inFlight.put(event.getRequestId(), event.getDatabaseName() + "." + collection);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "ok");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(
+                event.getRequestId(),
+                event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS),
+                event.getThrowable().getMessage());
+    }
+
+    private void complete(int requestId, String commandName, long elapsedNanos, String outcome) {
+        String namespace = inFlight.remove(requestId);
+
+        if (elapsedNanos >= thresholdNanos) {
+            log.warn(
+                    "Slow Mongo command {} on {} took {} ms ({})",
+                    commandName,
+                    namespace,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    outcome);
+        }
+    }
+}
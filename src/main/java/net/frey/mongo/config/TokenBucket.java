@@ -0,0 +1,31 @@
+package net.frey.mongo.config;
+
+/** Classic token bucket; refills continuously at {@code rate} tokens per second up to {@code capacity}. */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(int capacity, double rate) {
+        this.capacity = capacity;
+        this.tokensPerNano = rate / 1e9;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /** Takes a token, returning zero, or returns the nanoseconds until one will be available. */
+    public synchronized long tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
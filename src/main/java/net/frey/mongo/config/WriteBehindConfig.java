@@ -0,0 +1,20 @@
+package net.frey.mongo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.frey.mongo.domain.Beer;
+import net.frey.mongo.service.WriteBehindBatcher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+@Configuration
+public class WriteBehindConfig {
+    @Bean
+    public WriteBehindBatcher<Beer> beerWriteBehind(
+            ReactiveMongoTemplate template, WriteBehindProperties properties, MeterRegistry registry) {
+        WriteBehindBatcher<Beer> batcher = new WriteBehindBatcher<>(template, Beer.class, properties);
+        batcher.bindTo(registry, "beer");
+
+        return batcher;
+    }
+}
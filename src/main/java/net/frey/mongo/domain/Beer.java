@@ -6,23 +6,45 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Document
+@CompoundIndex(name = "beerStyle_id", def = "{'beerStyle': 1, '_id': 1}")
 public class Beer {
     @Id
     private String id;
 
+    @Indexed
+    @TextIndexed(weight = 3)
     private String beerName;
+
+    @TextIndexed
     private String beerStyle;
     private String upc;
     private Integer quantityOnHand;
+
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
+
+    @Version
+    private Long version;
+
+    @CreatedDate
     private LocalDateTime createdDate;
+
+    @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 }
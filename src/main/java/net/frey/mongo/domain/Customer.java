@@ -9,6 +9,9 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -20,9 +23,14 @@ public class Customer {
     @Id
     private String id;
 
+    @Indexed
+    @TextIndexed
     @Size(max = 255)
     private String customerName;
 
+    @Version
+    private Long version;
+
     @CreatedDate
     private LocalDateTime createdDate;
 
@@ -1,8 +1,11 @@
 package net.frey.mongo.endpoint;
 
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 import static org.springframework.web.reactive.function.server.ServerResponse.created;
 import static org.springframework.web.reactive.function.server.ServerResponse.noContent;
@@ -10,10 +13,21 @@ import static org.springframework.web.reactive.function.server.ServerResponse.ok
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 import static reactor.core.publisher.Mono.error;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.ApiProperties;
 import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.model.BeerStyleStatsDTO;
+import net.frey.mongo.model.InventoryAdjustmentDTO;
+import net.frey.mongo.model.InventoryResultDTO;
 import net.frey.mongo.service.BeerService;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
@@ -31,14 +45,43 @@ import reactor.core.publisher.Mono;
 public class BeerHandler {
     public static final String BEER_PATH = "/api/v3/beer";
     public static final String ID_PATH = BEER_PATH + "/{id}";
+    public static final String STATS_PATH = BEER_PATH + "/stats";
+    public static final String BULK_PATH = BEER_PATH + Bulk.PATH_SUFFIX;
+    public static final String CHANGES_PATH = BEER_PATH + ChangeStreams.PATH_SUFFIX;
+    public static final String EXPORT_PATH = BEER_PATH + CatalogExporter.PATH_SUFFIX;
+    public static final String SEARCH_PATH = BEER_PATH + Search.PATH_SUFFIX;
+    public static final String INVENTORY_PATH = BEER_PATH + "/inventory";
+    public static final String ID_INVENTORY_PATH = ID_PATH + "/inventory";
+
+    private static final Set<String> BEER_FIELDS = Fields.of(BeerDTO.class);
+    private static final List<CatalogExporter.Column<BeerDTO>> EXPORT_COLUMNS = List.of(
+            CatalogExporter.Column.of("id", BeerDTO::getId),
+            CatalogExporter.Column.of("beerName", BeerDTO::getBeerName),
+            CatalogExporter.Column.of("beerStyle", BeerDTO::getBeerStyle),
+            CatalogExporter.Column.of("upc", BeerDTO::getUpc),
+            CatalogExporter.Column.of("quantityOnHand", BeerDTO::getQuantityOnHand),
+            CatalogExporter.Column.of("price", BeerDTO::getPrice),
+            CatalogExporter.Column.of("version", BeerDTO::getVersion),
+            CatalogExporter.Column.of("createdDate", BeerDTO::getCreatedDate),
+            CatalogExporter.Column.of("lastModifiedDate", BeerDTO::getLastModifiedDate));
 
     private final BeerService service;
     private final Validator validator;
+    private final ApiProperties apiProperties;
+    private final CatalogExporter exporter;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public RouterFunction<ServerResponse> beerRoutes() {
         return route().GET(BEER_PATH, this::listBeers)
+                .GET(STATS_PATH, this::getStyleStats)
+                .GET(CHANGES_PATH, this::streamChanges)
+                .GET(EXPORT_PATH, this::exportBeers)
+                .GET(SEARCH_PATH, this::searchBeers)
                 .GET(ID_PATH, this::getBeerById)
+                .POST(BULK_PATH, contentType(APPLICATION_NDJSON, APPLICATION_JSON), this::bulkCreateBeers)
+                .POST(INVENTORY_PATH, contentType(APPLICATION_NDJSON, APPLICATION_JSON), this::adjustInventories)
+                .POST(ID_INVENTORY_PATH, accept(APPLICATION_JSON), this::adjustInventory)
                 .POST(BEER_PATH, accept(APPLICATION_JSON), this::createBeer)
                 .PUT(ID_PATH, accept(APPLICATION_JSON), this::updateBeer)
                 .PATCH(ID_PATH, accept(APPLICATION_JSON), this::patchBeer)
@@ -47,42 +90,148 @@ public class BeerHandler {
     }
 
     public Mono<ServerResponse> listBeers(ServerRequest request) {
-        Flux<BeerDTO> beerFlux =
-                request.queryParam("style").map(service::findByBeerStyle).orElseGet(service::listBeers);
+        Optional<List<String>> ids = MultiGet.requestedIds(request, apiProperties.maxIds());
+
+        if (ids.isPresent()) {
+            return MultiGet.respond(ids.get(), service.getByIds(ids.get()));
+        }
+
+        Optional<MediaType> streamingType = Streaming.requestedType(request);
+
+        if (streamingType.isPresent()) {
+            return Streaming.stream(streamingType.get(), streamBeers(request), BeerDTO.class);
+        }
+
+        int limit = Paging.limit(request);
+
+        return Paging.page(
+                request,
+                findBeers(request, Paging.after(request).orElse(null), limit + 1),
+                limit,
+                BeerDTO::getId,
+                BeerDTO::getVersion);
+    }
+
+    private Flux<BeerDTO> streamBeers(ServerRequest request) {
+        if (Streaming.isPaged(request)) {
+            return findBeers(request, Paging.after(request).orElse(null), Paging.limit(request));
+        }
+
+        Set<String> fields = Fields.requested(request, BEER_FIELDS);
+
+        if (!fields.isEmpty()) {
+            return service.findBeers(request.queryParam("style").orElse(null), null, 0, fields);
+        }
 
-        return ok().body(beerFlux, BeerDTO.class);
+        return request.queryParam("style").map(service::findByBeerStyle).orElseGet(service::listBeers);
+    }
+
+    private Flux<BeerDTO> findBeers(ServerRequest request, String after, int limit) {
+        Set<String> fields = Fields.requested(request, BEER_FIELDS);
+
+        if (!fields.isEmpty()) {
+            return service.findBeers(request.queryParam("style").orElse(null), after, limit, fields);
+        }
+
+        return request.queryParam("style")
+                .map(style -> service.findByBeerStyle(style, after, limit))
+                .orElseGet(() -> service.listBeers(after, limit));
+    }
+
+    public Mono<ServerResponse> streamChanges(ServerRequest request) {
+        String resumeToken = ChangeStreams.resumeToken(request);
+
+        return ChangeStreams.stream(service.changes(resumeToken, request.queryParam("style").orElse(null)));
+    }
+
+    public Mono<ServerResponse> exportBeers(ServerRequest request) {
+        return exporter.export(request, "beer", service.exportBeers(exporter.cursorBatchSize()), EXPORT_COLUMNS);
+    }
+
+    public Mono<ServerResponse> searchBeers(ServerRequest request) {
+        return ok().body(service.searchBeers(Search.query(request), Search.limit(request)), BeerDTO.class);
     }
 
     public Mono<ServerResponse> getBeerById(ServerRequest request) {
-        return ok().body(
-                        service.getById(request.pathVariable("id"))
-                                .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND))),
-                        BeerDTO.class);
+        String id = request.pathVariable("id");
+        Set<String> fields = Fields.requested(request, BEER_FIELDS);
+
+        if (!fields.isEmpty()) {
+            return ok().body(
+                            service.getById(id, fields).switchIfEmpty(error(new ResponseStatusException(NOT_FOUND))),
+                            BeerDTO.class);
+        }
+
+        return service.getById(id)
+                .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
+                .flatMap(beer -> Conditional.ok(
+                        request,
+                        Conditional.eTag(beer.getVersion()),
+                        beer.getLastModifiedDate(),
+                        builder -> builder.bodyValue(beer)));
+    }
+
+    public Mono<ServerResponse> getStyleStats(ServerRequest request) {
+        Flux<BeerStyleStatsDTO> stats = service.styleStats(
+                request.queryParam("style").orElse(null),
+                decimalParam(request, "minPrice"),
+                decimalParam(request, "maxPrice"));
+
+        return ok().body(stats, BeerStyleStatsDTO.class);
     }
 
     public Mono<ServerResponse> createBeer(ServerRequest request) {
-        return service.saveBeer(request.bodyToMono(BeerDTO.class))
-                .doOnNext(this::validate)
+        return service.saveBeer(request.bodyToMono(BeerDTO.class).doOnNext(this::validateNew))
                 .flatMap(beerDTO ->
                         created(fromPath(ID_PATH).build(beerDTO.getId())).build());
     }
 
+    public Mono<ServerResponse> bulkCreateBeers(ServerRequest request) {
+        return service.saveBeers(Bulk.items(request, objectMapper, BeerDTO.class), Bulk.batchSize(request))
+                .flatMap(result -> ok().bodyValue(result));
+    }
+
     public Mono<ServerResponse> updateBeer(ServerRequest request) {
         String id = request.pathVariable("id");
+        Long expectedVersion = Conditional.expectedVersion(request);
 
         return request.bodyToMono(BeerDTO.class)
                 .doOnNext(this::validate)
-                .flatMap(dto -> service.updateBeer(id, dto))
+                .flatMap(dto -> service.updateBeer(id, dto, expectedVersion))
                 .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
-                .flatMap(savedDto -> noContent().build());
+                .onErrorMap(OptimisticLockingFailureException.class, Conditional::preconditionFailed)
+                .flatMap(savedDto -> Conditional.noContent(savedDto.getVersion()));
     }
 
     public Mono<ServerResponse> patchBeer(ServerRequest request) {
+        Long expectedVersion = Conditional.expectedVersion(request);
+
         return request.bodyToMono(BeerDTO.class)
                 .doOnNext(this::validate)
-                .flatMap(dto -> service.patchBeer(request.pathVariable("id"), dto))
+                .flatMap(dto -> service.patchBeer(request.pathVariable("id"), dto, expectedVersion))
                 .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
-                .flatMap(savedDto -> noContent().build());
+                .onErrorMap(OptimisticLockingFailureException.class, Conditional::preconditionFailed)
+                .flatMap(savedDto -> Conditional.noContent(savedDto.getVersion()));
+    }
+
+    public Mono<ServerResponse> adjustInventory(ServerRequest request) {
+        String id = request.pathVariable("id");
+
+        return request.bodyToMono(InventoryAdjustmentDTO.class)
+                .doOnNext(this::validate)
+                .flatMap(adjustment -> service.adjustInventory(id, adjustment.getDelta()))
+                .flatMap(result -> switch (result.getStatus()) {
+                    case APPLIED -> ok().bodyValue(result);
+                    case NOT_FOUND -> error(new ResponseStatusException(NOT_FOUND));
+                    case INSUFFICIENT_STOCK -> error(new ResponseStatusException(CONFLICT, "Insufficient stock"));
+                });
+    }
+
+    public Mono<ServerResponse> adjustInventories(ServerRequest request) {
+        Flux<InventoryAdjustmentDTO> adjustments =
+                request.bodyToFlux(InventoryAdjustmentDTO.class).doOnNext(this::validate);
+
+        return ok().body(service.adjustInventory(adjustments), InventoryResultDTO.class);
     }
 
     public Mono<ServerResponse> deleteBeer(ServerRequest request) {
@@ -91,6 +240,32 @@ public class BeerHandler {
                 .flatMap(dto -> service.deleteById(dto.getId()).then(noContent().build()));
     }
 
+    private static BigDecimal decimalParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .map(value -> {
+                    try {
+                        return new BigDecimal(value);
+                    } catch (NumberFormatException e) {
+                        throw new ServerWebInputException("Invalid " + name + ": " + value);
+                    }
+                })
+                .orElse(null);
+    }
+
+    private void validate(InventoryAdjustmentDTO adjustment) {
+        if (adjustment.getDelta() == null) {
+            throw new ServerWebInputException("delta is required");
+        }
+    }
+
+    private void validateNew(BeerDTO dto) {
+        if (dto.getId() != null) {
+            throw new ServerWebInputException("id is assigned on create and must not be supplied");
+        }
+
+        validate(dto);
+    }
+
     private void validate(BeerDTO dto) {
         Errors errors = new BeanPropertyBindingResult(dto, "beerDto");
 
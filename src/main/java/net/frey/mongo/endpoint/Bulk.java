@@ -0,0 +1,52 @@
+package net.frey.mongo.endpoint;
+
+import static net.frey.mongo.service.BulkInserter.DEFAULT_BATCH_SIZE;
+import static net.frey.mongo.service.BulkInserter.MAX_BATCH_SIZE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import net.frey.mongo.service.BulkInserter;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Flux;
+
+/**
+ * Request parsing for bulk inserts. NDJSON bodies are decoded a line at a time, so a malformed line becomes a failure
+ * at its own index instead of aborting the stream after earlier batches have already been written.
+ */
+final class Bulk {
+    static final String PATH_SUFFIX = "/bulk";
+    static final String BATCH_SIZE_PARAM = "batchSize";
+
+    private Bulk() {}
+
+    static int batchSize(ServerRequest request) {
+        return QueryParams.positiveInt(request, BATCH_SIZE_PARAM, DEFAULT_BATCH_SIZE, MAX_BATCH_SIZE);
+    }
+
+    static <D> Flux<BulkInserter.Item<D>> items(ServerRequest request, ObjectMapper objectMapper, Class<D> type) {
+        boolean ndjson = request.headers()
+                .contentType()
+                .map(APPLICATION_NDJSON::isCompatibleWith)
+                .orElse(false);
+
+        if (!ndjson) {
+            return request.bodyToFlux(type).map(BulkInserter.Item::of);
+        }
+
+        ObjectReader reader = objectMapper.readerFor(type);
+
+        return request.bodyToFlux(String.class).filter(line -> !line.isBlank()).map(line -> parse(reader, line));
+    }
+
+    private static <D> BulkInserter.Item<D> parse(ObjectReader reader, String line) {
+        try {
+            D value = reader.readValue(line);
+
+            return BulkInserter.Item.of(value);
+        } catch (JsonProcessingException e) {
+            return BulkInserter.Item.failed("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package net.frey.mongo.endpoint;
+
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import net.frey.mongo.config.ExportProperties;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Full-catalog export as NDJSON or CSV. Rows are encoded a chunk at a time straight into buffers from the response's
+ * pooled allocator, optionally through a streaming gzip encoder, and chunks are only pulled from the cursor as the
+ * client drains them, so memory stays flat however large the collection is. Throughput is logged and recorded per
+ * export.
+ */
+@Slf4j
+@Component
+public class CatalogExporter {
+    static final String PATH_SUFFIX = "/export";
+    static final String FORMAT_PARAM = "format";
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final String GZIP = "gzip";
+    private static final int INITIAL_CHUNK_CAPACITY = 8192;
+
+    private final ObjectWriter json;
+    private final ExportProperties properties;
+    private final MeterRegistry registry;
+
+    public CatalogExporter(ObjectMapper objectMapper, ExportProperties properties, MeterRegistry registry) {
+        this.json = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    public int cursorBatchSize() {
+        return properties.cursorBatchSize();
+    }
+
+    public <T> Mono<ServerResponse> export(
+            ServerRequest request, String name, Flux<T> rows, List<Column<T>> columns) {
+        Format format = format(request);
+        boolean gzip = acceptsGzip(request);
+
+        ServerResponse.BodyBuilder response = ok().contentType(format.mediaType);
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        BodyInserter<Flux<DataBuffer>, ReactiveHttpOutputMessage> body = (message, context) -> message.writeWith(
+                encode(message.bufferFactory(), measure(name, format, rows), format, columns, gzip));
+
+        return response.body(body);
+    }
+
+    private <T> Flux<DataBuffer> encode(
+            DataBufferFactory factory, Flux<T> rows, Format format, List<Column<T>> columns, boolean gzip) {
+        Flux<Chunk> chunks = rows.buffer(properties.rowsPerChunk()).<Chunk>map(batch -> out -> {
+            for (T row : batch) {
+                writeRow(out, row, format, columns);
+            }
+        });
+
+        if (format == Format.CSV) {
+            chunks = Flux.<Chunk>just(out -> writeCsvLine(out, columns.stream().map(Column::name).toList()))
+                    .concatWith(chunks);
+        }
+
+        if (!gzip) {
+            return chunks.map(chunk -> write(factory, chunk));
+        }
+
+        return Flux.using(
+                GzipEncoder::new,
+                encoder -> chunks.map(chunk -> encoder.write(factory, chunk))
+                        .concatWith(Mono.fromSupplier(() -> encoder.finish(factory))),
+                GzipEncoder::close);
+    }
+
+    private <T> void writeRow(OutputStream out, T row, Format format, List<Column<T>> columns) throws IOException {
+        if (format == Format.NDJSON) {
+            json.writeValue(out, row);
+            out.write('\n');
+        } else {
+            writeCsvLine(out, columns.stream().map(column -> column.value().apply(row)).toList());
+        }
+    }
+
+    private static void writeCsvLine(OutputStream out, List<?> values) throws IOException {
+        StringBuilder line = new StringBuilder();
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+
+            Object value = values.get(i);
+
+            if (value != null) {
+                line.append(csvField(value.toString()));
+            }
+        }
+
+        out.write(line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static DataBuffer write(DataBufferFactory factory, Chunk chunk) {
+        DataBuffer buffer = factory.allocateBuffer(INITIAL_CHUNK_CAPACITY);
+
+        try (OutputStream out = buffer.asOutputStream()) {
+            chunk.writeTo(out);
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private <T> Flux<T> measure(String name, Format format, Flux<T> rows) {
+        String formatName = format.name().toLowerCase(Locale.ROOT);
+        Counter documents = Counter.builder("export.documents")
+                .tag("name", name)
+                .tag("format", formatName)
+                .register(registry);
+
+        return Flux.defer(() -> {
+            AtomicLong exported = new AtomicLong();
+            long start = System.nanoTime();
+
+            return rows.doOnNext(row -> {
+                        exported.incrementAndGet();
+                        documents.increment();
+                    })
+                    .doOnComplete(() -> report(name, formatName, exported.get(), System.nanoTime() - start));
+        });
+    }
+
+    private void report(String name, String format, long documents, long elapsedNanos) {
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        double rate = documents / seconds;
+
+        Timer.builder("export.duration")
+                .tag("name", name)
+                .tag("format", format)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("export.throughput")
+                .description("Documents exported per second")
+                .baseUnit("documents/second")
+                .tag("name", name)
+                .tag("format", format)
+                .register(registry)
+                .record(rate);
+        log.info("Exported {} {} documents as {} in {} ms ({} docs/sec)",
+                documents, name, format, elapsedNanos / 1_000_000, Math.round(rate));
+    }
+
+    private static Format format(ServerRequest request) {
+        return request.queryParam(FORMAT_PARAM)
+                .map(Format::parse)
+                .orElseGet(() -> request.headers().accept().stream()
+                        .anyMatch(TEXT_CSV::equalsTypeAndSubtype) ? Format.CSV : Format.NDJSON);
+    }
+
+    /**
+     * Whether Accept-Encoding gives gzip a non-zero quality, either by name or, when it is not named, through
+     * {@code *}. A malformed quality counts as zero.
+     */
+    private static boolean acceptsGzip(ServerRequest request) {
+        Double gzip = null;
+        Double any = null;
+
+        for (String value : request.headers().header(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String element : value.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+
+                if (coding.equals(GZIP)) {
+                    gzip = quality(parts);
+                } else if (coding.equals("*")) {
+                    any = quality(parts);
+                }
+            }
+        }
+
+        Double quality = gzip != null ? gzip : any;
+
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] parameter = parts[i].split("=", 2);
+
+            if (parameter.length == 2 && parameter[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    public record Column<T>(String name, Function<T, ?> value) {
+        public static <T> Column<T> of(String name, Function<T, ?> value) {
+            return new Column<>(name, value);
+        }
+    }
+
+    private enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(TEXT_CSV);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ServerWebInputException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface GzipStep {
+        void run() throws IOException;
+    }
+
+    /**
+     * One deflate stream per response, sync-flushed after every chunk so each buffer is a complete, sendable piece of
+     * the gzip body. The compressor writes through to whichever buffer is current, and is only created once the first
+     * buffer is, so the gzip header lands at the start of the body instead of being written into nothing.
+     */
+    private static final class GzipEncoder {
+        private final Target target = new Target();
+        private GZIPOutputStream gzip;
+
+        DataBuffer write(DataBufferFactory factory, Chunk chunk) {
+            return CatalogExporter.write(factory, out -> target.into(out, () -> {
+                GZIPOutputStream stream = gzip();
+                chunk.writeTo(stream);
+                stream.flush();
+            }));
+        }
+
+        DataBuffer finish(DataBufferFactory factory) {
+            return CatalogExporter.write(factory, out -> target.into(out, () -> gzip().finish()));
+        }
+
+        void close() {
+            if (gzip == null) {
+                return;
+            }
+
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                log.debug("Discarding unfinished gzip export", e);
+            }
+        }
+
+        private GZIPOutputStream gzip() throws IOException {
+            if (gzip == null) {
+                gzip = new GZIPOutputStream(target, true);
+            }
+
+            return gzip;
+        }
+    }
+
+    private static final class Target extends OutputStream {
+        private OutputStream current = OutputStream.nullOutputStream();
+
+        void into(OutputStream out, GzipStep step) throws IOException {
+            current = out;
+
+            try {
+                step.run();
+            } finally {
+                current = OutputStream.nullOutputStream();
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            current.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            current.write(b, off, len);
+        }
+    }
+}
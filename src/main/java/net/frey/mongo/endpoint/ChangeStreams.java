@@ -0,0 +1,53 @@
+package net.frey.mongo.endpoint;
+
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+import net.frey.mongo.model.ChangeEventDTO;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server-sent change feeds. Each event's id is its resume token and its name the operation, so an
+ * {@code EventSource} that reconnects sends the token back in {@code Last-Event-ID} and picks up where it left off.
+ * Clients that manage the token themselves can pass it as {@code ?resumeAfter=} instead.
+ */
+final class ChangeStreams {
+    static final String PATH_SUFFIX = "/changes";
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    static final String RESUME_AFTER_PARAM = "resumeAfter";
+
+    private static final Pattern TOKEN = Pattern.compile("[0-9A-Fa-f]+");
+
+    private ChangeStreams() {}
+
+    static String resumeToken(ServerRequest request) {
+        Optional<String> token = request.queryParam(RESUME_AFTER_PARAM)
+                .or(() -> Optional.ofNullable(request.headers().firstHeader(LAST_EVENT_ID_HEADER)));
+
+        return token.map(value -> {
+                    if (!TOKEN.matcher(value).matches()) {
+                        throw new ServerWebInputException("Invalid resume token: " + value);
+                    }
+
+                    return value;
+                })
+                .orElse(null);
+    }
+
+    static <T> Mono<ServerResponse> stream(Flux<ChangeEventDTO<T>> events) {
+        Flux<ServerSentEvent<ChangeEventDTO<T>>> sse = events.map(event -> ServerSentEvent.builder(event)
+                .id(event.getResumeToken())
+                .event(event.getOperation())
+                .build());
+
+        return ok().contentType(TEXT_EVENT_STREAM).body(BodyInserters.fromServerSentEvents(sse));
+    }
+}
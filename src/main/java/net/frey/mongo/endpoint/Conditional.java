@@ -0,0 +1,149 @@
+package net.frey.mongo.endpoint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Conditional request support. A single document's ETag is its {@code version}, so a client can send it back in
+ * {@code If-Match} to update only the version it has seen. A page's ETag is derived from the ids and versions of its
+ * elements; pages carry no {@code Last-Modified} because a deletion would not move it. Responses without a version,
+ * such as field projections, carry no validators at all.
+ */
+final class Conditional {
+    private Conditional() {}
+
+    static Mono<ServerResponse> ok(
+            ServerRequest request,
+            String eTag,
+            LocalDateTime lastModified,
+            Function<ServerResponse.BodyBuilder, Mono<ServerResponse>> body) {
+        Instant modified = lastModified == null
+                ? null
+                : lastModified.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+
+        if (notModified(request.headers().asHttpHeaders(), eTag, modified)) {
+            return validators(ServerResponse.status(NOT_MODIFIED), eTag, modified).build();
+        }
+
+        return body.apply(validators(ServerResponse.ok(), eTag, modified));
+    }
+
+    /** The response to a successful write, carrying the ETag of the version it produced. */
+    static Mono<ServerResponse> noContent(Long version) {
+        ServerResponse.HeadersBuilder<?> builder = ServerResponse.noContent();
+
+        if (version != null) {
+            builder.eTag(eTag(version));
+        }
+
+        return builder.build();
+    }
+
+    static ResponseStatusException preconditionFailed(Throwable cause) {
+        return new ResponseStatusException(PRECONDITION_FAILED, cause.getMessage(), cause);
+    }
+
+    static String eTag(Long version) {
+        return version == null ? null : '"' + version.toString() + '"';
+    }
+
+    static <T> String eTag(List<T> items, Function<T, String> id, Function<T, Long> version) {
+        StringBuilder key = new StringBuilder();
+
+        for (T item : items) {
+            Long itemVersion = version.apply(item);
+
+            if (itemVersion == null) {
+                return null;
+            }
+
+            key.append(id.apply(item)).append(':').append(itemVersion).append(',');
+        }
+
+        return '"' + UUID.nameUUIDFromBytes(key.toString().getBytes(UTF_8)).toString() + '"';
+    }
+
+    /**
+     * The version named by a strong {@code If-Match} ETag, or {@code null} when the header is absent or {@code *}. A
+     * weak or foreign ETag can never match a version, so it fails the precondition straight away.
+     */
+    static Long expectedVersion(ServerRequest request) {
+        List<String> ifMatch;
+
+        try {
+            ifMatch = request.headers().asHttpHeaders().getIfMatch();
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("Invalid If-Match header");
+        }
+
+        if (ifMatch.isEmpty() || ifMatch.contains("*")) {
+            return null;
+        }
+
+        if (ifMatch.size() > 1) {
+            throw new ServerWebInputException("If-Match must name a single version");
+        }
+
+        String tag = ifMatch.get(0);
+
+        try {
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > 2) {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // falls through to the precondition failure below
+        }
+
+        throw new ResponseStatusException(PRECONDITION_FAILED, "If-Match does not name a version of this resource");
+    }
+
+    private static boolean notModified(HttpHeaders headers, String eTag, Instant lastModified) {
+        List<String> ifNoneMatch;
+
+        try {
+            ifNoneMatch = headers.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("Invalid If-None-Match header");
+        }
+
+        if (!ifNoneMatch.isEmpty()) {
+            return eTag != null && ifNoneMatch.stream().anyMatch(tag -> tag.equals("*") || weak(tag).equals(eTag));
+        }
+
+        long ifModifiedSince = headers.getIfModifiedSince();
+
+        return lastModified != null && ifModifiedSince != -1 && lastModified.toEpochMilli() <= ifModifiedSince;
+    }
+
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static ServerResponse.BodyBuilder validators(
+            ServerResponse.BodyBuilder builder, String eTag, Instant lastModified) {
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+
+        return builder;
+    }
+}
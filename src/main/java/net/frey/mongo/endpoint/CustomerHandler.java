@@ -2,7 +2,9 @@ package net.frey.mongo.endpoint;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 import static org.springframework.web.reactive.function.server.ServerResponse.created;
 import static org.springframework.web.reactive.function.server.ServerResponse.noContent;
@@ -10,11 +12,17 @@ import static org.springframework.web.reactive.function.server.ServerResponse.ok
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 import static reactor.core.publisher.Mono.error;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.ApiProperties;
 import net.frey.mongo.model.CustomerDTO;
 import net.frey.mongo.service.CustomerService;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
@@ -32,14 +40,33 @@ import reactor.core.publisher.Mono;
 public class CustomerHandler {
     public static final String CUSTOMER_PATH = "/api/v3/customer";
     public static final String ID_PATH = CUSTOMER_PATH + "/{id}";
+    public static final String BULK_PATH = CUSTOMER_PATH + Bulk.PATH_SUFFIX;
+    public static final String CHANGES_PATH = CUSTOMER_PATH + ChangeStreams.PATH_SUFFIX;
+    public static final String EXPORT_PATH = CUSTOMER_PATH + CatalogExporter.PATH_SUFFIX;
+    public static final String SEARCH_PATH = CUSTOMER_PATH + Search.PATH_SUFFIX;
+
+    private static final Set<String> CUSTOMER_FIELDS = Fields.of(CustomerDTO.class);
+    private static final List<CatalogExporter.Column<CustomerDTO>> EXPORT_COLUMNS = List.of(
+            CatalogExporter.Column.of("id", CustomerDTO::getId),
+            CatalogExporter.Column.of("customerName", CustomerDTO::getCustomerName),
+            CatalogExporter.Column.of("version", CustomerDTO::getVersion),
+            CatalogExporter.Column.of("createdDate", CustomerDTO::getCreatedDate),
+            CatalogExporter.Column.of("lastModifiedDate", CustomerDTO::getLastModifiedDate));
 
     private final CustomerService service;
     private final Validator validator;
+    private final ApiProperties apiProperties;
+    private final CatalogExporter exporter;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public RouterFunction<ServerResponse> customerRoutes() {
         return route().GET(CUSTOMER_PATH, this::listCustomers)
+                .GET(CHANGES_PATH, this::streamChanges)
+                .GET(EXPORT_PATH, this::exportCustomers)
+                .GET(SEARCH_PATH, this::searchCustomers)
                 .GET(ID_PATH, this::getCustomerById)
+                .POST(BULK_PATH, contentType(APPLICATION_NDJSON, APPLICATION_JSON), this::bulkCreateCustomers)
                 .POST(CUSTOMER_PATH, accept(APPLICATION_JSON), this::createCustomer)
                 .PUT(ID_PATH, accept(APPLICATION_JSON), this::updateCustomer)
                 .PATCH(ID_PATH, accept(APPLICATION_JSON), this::patchCustomer)
@@ -48,46 +75,113 @@ public class CustomerHandler {
     }
 
     private Mono<ServerResponse> listCustomers(ServerRequest request) {
+        Optional<List<String>> ids = MultiGet.requestedIds(request, apiProperties.maxIds());
+
+        if (ids.isPresent()) {
+            return MultiGet.respond(ids.get(), service.getByIds(ids.get()));
+        }
 
         Optional<String> nameParam = request.queryParam("name");
 
-        Flux<CustomerDTO> customerFlux =
-                nameParam.map(name -> service.findFirstByName(name).flux()).orElseGet(service::listCustomers);
+        if (nameParam.isPresent()) {
+            return ok().body(service.findFirstByName(nameParam.get()).flux(), CustomerDTO.class);
+        }
 
-        return ok().body(customerFlux, CustomerDTO.class);
+        Optional<MediaType> streamingType = Streaming.requestedType(request);
+
+        if (streamingType.isPresent()) {
+            return Streaming.stream(streamingType.get(), streamCustomers(request), CustomerDTO.class);
+        }
+
+        int limit = Paging.limit(request);
+        Flux<CustomerDTO> customerFlux = findCustomers(request, Paging.after(request).orElse(null), limit + 1);
+
+        return Paging.page(request, customerFlux, limit, CustomerDTO::getId, CustomerDTO::getVersion);
     }
 
-    private Mono<ServerResponse> getCustomerById(ServerRequest request) {
+    private Flux<CustomerDTO> streamCustomers(ServerRequest request) {
+        if (Streaming.isPaged(request)) {
+            return findCustomers(request, Paging.after(request).orElse(null), Paging.limit(request));
+        }
+
+        Set<String> fields = Fields.requested(request, CUSTOMER_FIELDS);
+
+        return fields.isEmpty() ? service.listCustomers() : service.findCustomers(null, 0, fields);
+    }
+
+    private Flux<CustomerDTO> findCustomers(ServerRequest request, String after, int limit) {
+        Set<String> fields = Fields.requested(request, CUSTOMER_FIELDS);
+
+        return fields.isEmpty()
+                ? service.listCustomers(after, limit)
+                : service.findCustomers(after, limit, fields);
+    }
+
+    private Mono<ServerResponse> streamChanges(ServerRequest request) {
+        return ChangeStreams.stream(service.changes(ChangeStreams.resumeToken(request)));
+    }
+
+    private Mono<ServerResponse> exportCustomers(ServerRequest request) {
+        return exporter.export(
+                request, "customer", service.exportCustomers(exporter.cursorBatchSize()), EXPORT_COLUMNS);
+    }
+
+    private Mono<ServerResponse> searchCustomers(ServerRequest request) {
         return ok().body(
-                        service.getById(request.pathVariable("id"))
-                                .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND))),
-                        CustomerDTO.class);
+                        service.searchCustomers(Search.query(request), Search.limit(request)), CustomerDTO.class);
+    }
+
+    private Mono<ServerResponse> getCustomerById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        Set<String> fields = Fields.requested(request, CUSTOMER_FIELDS);
+
+        if (!fields.isEmpty()) {
+            return ok().body(
+                            service.getById(id, fields).switchIfEmpty(error(new ResponseStatusException(NOT_FOUND))),
+                            CustomerDTO.class);
+        }
+
+        return service.getById(id)
+                .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
+                .flatMap(customer -> Conditional.ok(
+                        request,
+                        Conditional.eTag(customer.getVersion()),
+                        customer.getLastModifiedDate(),
+                        builder -> builder.bodyValue(customer)));
+    }
+
+    private Mono<ServerResponse> bulkCreateCustomers(ServerRequest request) {
+        return service.saveCustomers(Bulk.items(request, objectMapper, CustomerDTO.class), Bulk.batchSize(request))
+                .flatMap(result -> ok().bodyValue(result));
     }
 
     private Mono<ServerResponse> updateCustomer(ServerRequest request) {
         String id = request.pathVariable("id");
+        Long expectedVersion = Conditional.expectedVersion(request);
 
         return request.bodyToMono(CustomerDTO.class)
                 .doOnNext(this::validate)
-                .flatMap(findDto -> service.getById(id))
-                .map(dto -> service.updateCustomer(id, dto))
+                .flatMap(dto -> service.updateCustomer(id, dto, expectedVersion))
                 .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
-                .flatMap(savedDto -> noContent().build());
+                .onErrorMap(OptimisticLockingFailureException.class, Conditional::preconditionFailed)
+                .flatMap(savedDto -> Conditional.noContent(savedDto.getVersion()));
     }
 
     private Mono<ServerResponse> createCustomer(ServerRequest request) {
-        return service.saveCustomer(request.bodyToMono(CustomerDTO.class))
-                .doOnNext(this::validate)
+        return service.saveCustomer(request.bodyToMono(CustomerDTO.class).doOnNext(this::validateNew))
                 .flatMap(customerDTO ->
                         created(fromPath(ID_PATH).build(customerDTO.getId())).build());
     }
 
     private Mono<ServerResponse> patchCustomer(ServerRequest request) {
+        Long expectedVersion = Conditional.expectedVersion(request);
+
         return request.bodyToMono(CustomerDTO.class)
                 .doOnNext(this::validate)
-                .flatMap(dto -> service.patchCustomer(request.pathVariable("id"), dto))
+                .flatMap(dto -> service.patchCustomer(request.pathVariable("id"), dto, expectedVersion))
                 .switchIfEmpty(error(new ResponseStatusException(NOT_FOUND)))
-                .flatMap(savedDto -> noContent().build());
+                .onErrorMap(OptimisticLockingFailureException.class, Conditional::preconditionFailed)
+                .flatMap(savedDto -> Conditional.noContent(savedDto.getVersion()));
     }
 
     private Mono<ServerResponse> deleteCustomer(ServerRequest request) {
@@ -96,6 +190,14 @@ public class CustomerHandler {
                 .flatMap(dto -> service.deleteById(dto.getId()).then(noContent().build()));
     }
 
+    private void validateNew(CustomerDTO dto) {
+        if (dto.getId() != null) {
+            throw new ServerWebInputException("id is assigned on create and must not be supplied");
+        }
+
+        validate(dto);
+    }
+
     private void validate(CustomerDTO dto) {
         Errors errors = new BeanPropertyBindingResult(dto, "customerDto");
 
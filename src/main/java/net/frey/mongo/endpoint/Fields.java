@@ -0,0 +1,43 @@
+package net.frey.mongo.endpoint;
+
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+/** Parses {@code ?fields=a,b} into the set of DTO properties a read should be projected to. */
+final class Fields {
+    static final String FIELDS_PARAM = "fields";
+
+    private Fields() {}
+
+    static Set<String> of(Class<?> dtoClass) {
+        return Arrays.stream(dtoClass.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(toUnmodifiableSet());
+    }
+
+    static Set<String> requested(ServerRequest request, Set<String> allowed) {
+        List<String> values = request.queryParams().getOrDefault(FIELDS_PARAM, List.of());
+
+        Set<String> fields = values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(toCollection(LinkedHashSet::new));
+
+        fields.stream().filter(field -> !allowed.contains(field)).findFirst().ifPresent(field -> {
+            throw new ServerWebInputException("Unknown field: " + field);
+        });
+
+        return fields;
+    }
+}
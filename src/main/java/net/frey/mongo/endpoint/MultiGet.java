@@ -0,0 +1,56 @@
+package net.frey.mongo.endpoint;
+
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Multi-get support for {@code ?ids=a,b,c}. The response lists one element per requested id in request order, with
+ * {@code null} standing in for ids that do not exist.
+ */
+final class MultiGet {
+    static final String IDS_PARAM = "ids";
+
+    private MultiGet() {}
+
+    static Optional<List<String>> requestedIds(ServerRequest request, int maxIds) {
+        List<String> values = request.queryParams().get(IDS_PARAM);
+
+        if (values == null) {
+            return Optional.empty();
+        }
+
+        List<String> ids = values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+
+        if (ids.isEmpty()) {
+            throw new ServerWebInputException("ids must not be empty");
+        }
+
+        if (ids.size() > maxIds) {
+            throw new ServerWebInputException("At most " + maxIds + " ids may be requested at once");
+        }
+
+        return Optional.of(ids);
+    }
+
+    static <T> Mono<ServerResponse> respond(List<String> ids, Mono<Map<String, T>> found) {
+        return found.flatMap(byId -> {
+            List<T> ordered = new ArrayList<>(ids.size());
+            ids.forEach(id -> ordered.add(byId.get(id)));
+
+            return ok().bodyValue(ordered);
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package net.frey.mongo.endpoint;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.bson.types.ObjectId;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keyset pagination helpers shared by the list routes. Pages are ordered by {@code _id} and the cursor is the id of
+ * the last element returned, so every page is a bounded index range scan no matter how deep it is.
+ */
+final class Paging {
+    static final String LIMIT_PARAM = "limit";
+    static final String AFTER_PARAM = "after";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private Paging() {}
+
+    static int limit(ServerRequest request) {
+        return QueryParams.positiveInt(request, LIMIT_PARAM, DEFAULT_LIMIT, MAX_LIMIT);
+    }
+
+    static Optional<String> after(ServerRequest request) {
+        return request.queryParam(AFTER_PARAM).map(after -> {
+            if (!ObjectId.isValid(after)) {
+                throw new ServerWebInputException("Invalid cursor: " + after);
+            }
+
+            return after;
+        });
+    }
+
+    /**
+     * Renders a page fetched with {@code limit + 1} elements. The extra element is only used to tell whether another
+     * page exists; when it does the cursor for it is sent back in the {@value #NEXT_CURSOR_HEADER} header. The page's
+     * ETag covers the extra element too, so it changes when a following page appears or disappears.
+     */
+    static <T> Mono<ServerResponse> page(
+            ServerRequest request,
+            Flux<T> overFetched,
+            int limit,
+            Function<T, String> idExtractor,
+            Function<T, Long> versionExtractor) {
+        return overFetched.collectList().flatMap(items -> {
+            String eTag = Conditional.eTag(items, idExtractor, versionExtractor);
+
+            if (items.size() <= limit) {
+                return Conditional.ok(request, eTag, null, builder -> builder.bodyValue(items));
+            }
+
+            List<T> page = items.subList(0, limit);
+
+            return Conditional.ok(
+                    request,
+                    eTag,
+                    null,
+                    builder -> builder.header(NEXT_CURSOR_HEADER, idExtractor.apply(page.get(limit - 1)))
+                            .bodyValue(page));
+        });
+    }
+}
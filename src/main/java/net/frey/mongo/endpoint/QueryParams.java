@@ -0,0 +1,32 @@
+package net.frey.mongo.endpoint;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+/** Parsing of numeric query parameters, rejecting bad values with a 400 rather than silently falling back. */
+final class QueryParams {
+    private QueryParams() {}
+
+    /**
+     * The named parameter as a positive int capped at {@code max}, or {@code defaultValue} when it is absent.
+     *
+     * @throws ServerWebInputException if the value is not a number or is less than one
+     */
+    static int positiveInt(ServerRequest request, String name, int defaultValue, int max) {
+        return request.queryParam(name).map(value -> parsePositive(name, value, max)).orElse(defaultValue);
+    }
+
+    private static int parsePositive(String name, String value, int max) {
+        try {
+            int parsed = Integer.parseInt(value);
+
+            if (parsed < 1) {
+                throw new ServerWebInputException(name + " must be positive");
+            }
+
+            return Math.min(parsed, max);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid " + name + ": " + value);
+        }
+    }
+}
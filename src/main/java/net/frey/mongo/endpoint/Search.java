@@ -0,0 +1,35 @@
+package net.frey.mongo.endpoint;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.server.ServerWebInputException;
+
+/**
+ * Search-as-you-type parameters: {@code ?q=} is required and {@code ?limit=} is kept small, since every keystroke is a
+ * request and the client only shows the top few suggestions.
+ */
+final class Search {
+    static final String PATH_SUFFIX = "/search";
+    static final String QUERY_PARAM = "q";
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private Search() {}
+
+    static String query(ServerRequest request) {
+        String query = request.queryParam(QUERY_PARAM)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .orElseThrow(() -> new ServerWebInputException("q must not be empty"));
+
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ServerWebInputException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+
+        return query;
+    }
+
+    static int limit(ServerRequest request) {
+        return QueryParams.positiveInt(request, Paging.LIMIT_PARAM, DEFAULT_LIMIT, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,42 @@
+package net.frey.mongo.endpoint;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+import static org.springframework.web.reactive.function.server.ServerResponse.ok;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Content negotiation for streaming list responses. Elements are flushed one at a time as the cursor produces them,
+ * and demand is bounded so the driver sizes its cursor batches from what the client is actually consuming.
+ */
+final class Streaming {
+    static final int PREFETCH = 256;
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(APPLICATION_NDJSON, TEXT_EVENT_STREAM);
+
+    private Streaming() {}
+
+    static Optional<MediaType> requestedType(ServerRequest request) {
+        List<MediaType> accept = request.headers().accept();
+
+        return STREAMING_TYPES.stream()
+                .filter(type -> accept.stream().anyMatch(type::equalsTypeAndSubtype))
+                .findFirst();
+    }
+
+    static boolean isPaged(ServerRequest request) {
+        return request.queryParam(Paging.LIMIT_PARAM).isPresent()
+                || request.queryParam(Paging.AFTER_PARAM).isPresent();
+    }
+
+    static <T> Mono<ServerResponse> stream(MediaType type, Flux<T> elements, Class<T> elementClass) {
+        return ok().contentType(type).body(elements.limitRate(PREFETCH), elementClass);
+    }
+}
@@ -3,10 +3,12 @@ package net.frey.mongo.mapper;
 import net.frey.mongo.domain.Beer;
 import net.frey.mongo.model.BeerDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface BeerMapper {
     BeerDTO entityToDto(Beer beer);
 
+    @Mapping(target = "version", ignore = true)
     Beer dtoToEntity(BeerDTO beer);
 }
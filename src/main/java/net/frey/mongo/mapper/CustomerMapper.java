@@ -3,10 +3,12 @@ package net.frey.mongo.mapper;
 import net.frey.mongo.domain.Customer;
 import net.frey.mongo.model.CustomerDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface CustomerMapper {
     CustomerDTO entityToDto(Customer customer);
 
+    @Mapping(target = "version", ignore = true)
     Customer dtoToEntity(CustomerDTO customer);
 }
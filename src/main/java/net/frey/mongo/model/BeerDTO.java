@@ -1,5 +1,6 @@
 package net.frey.mongo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
@@ -13,6 +14,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BeerDTO {
     private String id;
 
@@ -28,6 +30,7 @@ public class BeerDTO {
 
     private Integer quantityOnHand;
     private BigDecimal price;
+    private Long version;
     private LocalDateTime createdDate;
     private LocalDateTime lastModifiedDate;
 }
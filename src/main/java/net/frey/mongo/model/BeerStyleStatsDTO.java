@@ -0,0 +1,20 @@
+package net.frey.mongo.model;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerStyleStatsDTO {
+    private String beerStyle;
+    private Long count;
+    private Long totalQuantityOnHand;
+    private BigDecimal minPrice;
+    private BigDecimal avgPrice;
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,15 @@
+package net.frey.mongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkFailureDTO {
+    private long index;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package net.frey.mongo.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkResultDTO {
+    private long received;
+    private long inserted;
+    private long failed;
+    private List<BulkFailureDTO> failures;
+}
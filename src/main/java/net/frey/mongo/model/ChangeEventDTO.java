@@ -0,0 +1,19 @@
+package net.frey.mongo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO<T> {
+    private String resumeToken;
+    private String operation;
+    private String id;
+    private T document;
+}
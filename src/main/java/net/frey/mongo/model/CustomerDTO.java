@@ -1,5 +1,6 @@
 package net.frey.mongo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
@@ -11,12 +12,14 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CustomerDTO {
     private String id;
 
     @NotBlank
     private String customerName;
 
+    private Long version;
     private LocalDateTime createdDate;
     private LocalDateTime lastModifiedDate;
 }
@@ -0,0 +1,18 @@
+package net.frey.mongo.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAdjustmentDTO {
+    private String beerId;
+
+    @NotNull
+    private Integer delta;
+}
@@ -2,11 +2,5 @@ package net.frey.mongo.repository;
 
 import net.frey.mongo.domain.Beer;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
 
-public interface BeerRepository extends ReactiveMongoRepository<Beer, String> {
-    Mono<Beer> findFirstByBeerName(String beerName);
-
-    Flux<Beer> findByBeerStyle(String beerStyle);
-}
+public interface BeerRepository extends ReactiveMongoRepository<Beer, String>, BeerRepositoryCustom {}
@@ -0,0 +1,47 @@
+package net.frey.mongo.repository;
+
+import net.frey.mongo.domain.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Modifications and reads issued through the template. Every read is limited to {@code beer.mongo.client.max-time} of
+ * server time, including the {@code findById}, {@code existsById} and {@code findAllById} overrides of the base
+ * repository methods; the unpaged {@code findAll()} stream is not, since its duration depends on how fast the client
+ * consumes it.
+ */
+public interface BeerRepositoryCustom {
+    Mono<Beer> findById(String id);
+
+    Mono<Boolean> existsById(String id);
+
+    Flux<Beer> findAllById(Iterable<String> ids);
+
+    Mono<Beer> findFirstByBeerName(String beerName);
+
+    Flux<Beer> findByBeerStyle(String beerStyle);
+
+    Flux<Beer> findAllBy(Pageable pageable);
+
+    Flux<Beer> findByIdGreaterThan(String id, Pageable pageable);
+
+    Flux<Beer> findByBeerStyle(String beerStyle, Pageable pageable);
+
+    Flux<Beer> findByBeerStyleAndIdGreaterThan(String beerStyle, String id, Pageable pageable);
+
+    /**
+     * Applies {@code update} to the beer with the given id and emits the result, or completes empty when there is no
+     * such beer or, if {@code expectedVersion} is not {@code null}, when its version differs.
+     */
+    Mono<Beer> modify(String id, Long expectedVersion, Update update);
+
+    Mono<Beer> adjustQuantityOnHand(String id, int delta);
+
+    /** Up to {@code limit} beers whose name starts with {@code prefix}, ignoring case, in name order. */
+    Flux<Beer> findByBeerNamePrefix(String prefix, int limit);
+
+    /** Up to {@code limit} beers whose name or style contains any of {@code terms}, best match first. */
+    Flux<Beer> searchText(String terms, int limit);
+}
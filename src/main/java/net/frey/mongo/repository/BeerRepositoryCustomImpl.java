@@ -0,0 +1,103 @@
+package net.frey.mongo.repository;
+
+import static net.frey.mongo.repository.Modifications.byIdAndVersion;
+import static net.frey.mongo.repository.Modifications.touch;
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.MongoClientProperties;
+import net.frey.mongo.domain.Beer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Streamable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class BeerRepositoryCustomImpl implements BeerRepositoryCustom {
+    private final ReactiveMongoTemplate template;
+    private final MongoClientProperties clientProperties;
+
+    @Override
+    public Mono<Beer> findById(String id) {
+        return template.findOne(limited(query(where("id").is(id))), Beer.class);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return template.exists(limited(query(where("id").is(id))), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findAllById(Iterable<String> ids) {
+        return template.find(limited(query(where("id").in(Streamable.of(ids).toList()))), Beer.class);
+    }
+
+    @Override
+    public Mono<Beer> findFirstByBeerName(String beerName) {
+        return template.findOne(limited(query(where("beerName").is(beerName))), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyle(String beerStyle) {
+        return template.find(limited(query(where("beerStyle").is(beerStyle))), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findAllBy(Pageable pageable) {
+        return template.find(limited(new Query().with(pageable)), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByIdGreaterThan(String id, Pageable pageable) {
+        return template.find(limited(query(where("id").gt(id)).with(pageable)), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyle(String beerStyle, Pageable pageable) {
+        return template.find(limited(query(where("beerStyle").is(beerStyle)).with(pageable)), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerStyleAndIdGreaterThan(String beerStyle, String id, Pageable pageable) {
+        Query query = query(where("beerStyle").is(beerStyle).and("id").gt(id)).with(pageable);
+
+        return template.find(limited(query), Beer.class);
+    }
+
+    @Override
+    public Mono<Beer> modify(String id, Long expectedVersion, Update update) {
+        return template.findAndModify(
+                byIdAndVersion(id, expectedVersion), touch(update), options().returnNew(true), Beer.class);
+    }
+
+    @Override
+    public Mono<Beer> adjustQuantityOnHand(String id, int delta) {
+        Query filter = query(where("id").is(id));
+
+        if (delta < 0) {
+            filter.addCriteria(where("quantityOnHand").gte(-delta));
+        }
+
+        return template.findAndModify(
+                filter, touch(new Update().inc("quantityOnHand", delta)), options().returnNew(true), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> findByBeerNamePrefix(String prefix, int limit) {
+        return template.find(NameSearch.prefix("beerName", prefix, limit, clientProperties.maxTime()), Beer.class);
+    }
+
+    @Override
+    public Flux<Beer> searchText(String terms, int limit) {
+        return template.find(NameSearch.text(terms, limit, clientProperties.maxTime()), Beer.class);
+    }
+
+    private Query limited(Query query) {
+        return query.maxTime(clientProperties.maxTime());
+    }
+}
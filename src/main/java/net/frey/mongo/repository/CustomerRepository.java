@@ -2,8 +2,5 @@ package net.frey.mongo.repository;
 
 import net.frey.mongo.domain.Customer;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
-import reactor.core.publisher.Mono;
 
-public interface CustomerRepository extends ReactiveMongoRepository<Customer, String> {
-    Mono<Customer> findFirstByCustomerName(String customerName);
-}
+public interface CustomerRepository extends ReactiveMongoRepository<Customer, String>, CustomerRepositoryCustom {}
@@ -0,0 +1,34 @@
+package net.frey.mongo.repository;
+
+import net.frey.mongo.domain.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Modifications and reads issued through the template, time limited as described on {@link BeerRepositoryCustom}. */
+public interface CustomerRepositoryCustom {
+    Mono<Customer> findById(String id);
+
+    Mono<Boolean> existsById(String id);
+
+    Flux<Customer> findAllById(Iterable<String> ids);
+
+    Mono<Customer> findFirstByCustomerName(String customerName);
+
+    Flux<Customer> findAllBy(Pageable pageable);
+
+    Flux<Customer> findByIdGreaterThan(String id, Pageable pageable);
+
+    /**
+     * Applies {@code update} to the customer with the given id and emits the result, or completes empty when there is
+     * no such customer or, if {@code expectedVersion} is not {@code null}, when its version differs.
+     */
+    Mono<Customer> modify(String id, Long expectedVersion, Update update);
+
+    /** Up to {@code limit} customers whose name starts with {@code prefix}, ignoring case, in name order. */
+    Flux<Customer> findByCustomerNamePrefix(String prefix, int limit);
+
+    /** Up to {@code limit} customers whose name contains any of {@code terms}, best match first. */
+    Flux<Customer> searchText(String terms, int limit);
+}
@@ -0,0 +1,75 @@
+package net.frey.mongo.repository;
+
+import static net.frey.mongo.repository.Modifications.byIdAndVersion;
+import static net.frey.mongo.repository.Modifications.touch;
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.MongoClientProperties;
+import net.frey.mongo.domain.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Streamable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+    private final ReactiveMongoTemplate template;
+    private final MongoClientProperties clientProperties;
+
+    @Override
+    public Mono<Customer> findById(String id) {
+        return template.findOne(limited(query(where("id").is(id))), Customer.class);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return template.exists(limited(query(where("id").is(id))), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findAllById(Iterable<String> ids) {
+        return template.find(limited(query(where("id").in(Streamable.of(ids).toList()))), Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> findFirstByCustomerName(String customerName) {
+        return template.findOne(limited(query(where("customerName").is(customerName))), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findAllBy(Pageable pageable) {
+        return template.find(limited(new Query().with(pageable)), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findByIdGreaterThan(String id, Pageable pageable) {
+        return template.find(limited(query(where("id").gt(id)).with(pageable)), Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> modify(String id, Long expectedVersion, Update update) {
+        return template.findAndModify(
+                byIdAndVersion(id, expectedVersion), touch(update), options().returnNew(true), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findByCustomerNamePrefix(String prefix, int limit) {
+        return template.find(
+                NameSearch.prefix("customerName", prefix, limit, clientProperties.maxTime()), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> searchText(String terms, int limit) {
+        return template.find(NameSearch.text(terms, limit, clientProperties.maxTime()), Customer.class);
+    }
+
+    private Query limited(Query query) {
+        return query.maxTime(clientProperties.maxTime());
+    }
+}
@@ -0,0 +1,33 @@
+package net.frey.mongo.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * {@code findAndModify} bypasses the auditing and versioning callbacks that {@code save} runs, so every in-place
+ * modification bumps {@code version} and {@code lastModifiedDate} itself.
+ */
+public final class Modifications {
+    public static final String VERSION = "version";
+    public static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+
+    private Modifications() {}
+
+    public static Update touch(Update update) {
+        return update.inc(VERSION, 1).set(LAST_MODIFIED_DATE, LocalDateTime.now());
+    }
+
+    public static Query byIdAndVersion(String id, Long expectedVersion) {
+        Query filter = query(where("id").is(id));
+
+        if (expectedVersion != null) {
+            filter.addCriteria(where(VERSION).is(expectedVersion));
+        }
+
+        return filter;
+    }
+}
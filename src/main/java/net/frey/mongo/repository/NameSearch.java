@@ -0,0 +1,54 @@
+package net.frey.mongo.repository;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Collation.ComparisonLevel;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+/**
+ * Search-as-you-type over a name field. A prefix is matched as the range {@code [prefix, prefix + U+FFFF)} under a
+ * case-insensitive collation, which the server answers from a name index built with the same collation: a bounded
+ * index scan, in name order, however large the collection. Unlike a case-insensitive regex, this never has to examine
+ * every index key. Multi-word queries also go to the collection's text index, ranked by text score.
+ */
+public final class NameSearch {
+    public static final Collation CASE_INSENSITIVE = Collation.of("en").strength(ComparisonLevel.secondary());
+
+    /** Sorts after every other character under the root collation, so it bounds a prefix range. */
+    private static final String UPPER_BOUND = "\uffff";
+
+    private NameSearch() {}
+
+    public static Index prefixIndex(String field) {
+        return new Index().on(field, ASC).named(field + "_ci").collation(CASE_INSENSITIVE);
+    }
+
+    public static Query prefix(String field, String prefix, int limit, Duration maxTime) {
+        return query(where(field).gte(prefix).lt(prefix + UPPER_BOUND))
+                .collation(CASE_INSENSITIVE)
+                .with(Sort.by(ASC, field))
+                .limit(limit)
+                .maxTime(maxTime);
+    }
+
+    public static Query text(String terms, int limit, Duration maxTime) {
+        return TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(terms))
+                .sortByScore()
+                .limit(limit)
+                .maxTime(maxTime);
+    }
+
+    public static List<String> terms(String text) {
+        return Stream.of(text.trim().split("\\s+")).filter(term -> !term.isEmpty()).toList();
+    }
+}
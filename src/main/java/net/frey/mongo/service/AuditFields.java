@@ -0,0 +1,27 @@
+package net.frey.mongo.service;
+
+import static net.frey.mongo.repository.Modifications.LAST_MODIFIED_DATE;
+import static net.frey.mongo.repository.Modifications.VERSION;
+
+import java.util.Date;
+import org.bson.Document;
+
+/**
+ * Documents written straight to the collection skip the auditing and versioning callbacks that {@code save} runs, so
+ * they get the values an insert through the repository would have had.
+ */
+final class AuditFields {
+    static final String CREATED_DATE = "createdDate";
+
+    private AuditFields() {}
+
+    static Document stamp(Document document) {
+        Date now = new Date();
+
+        document.put(VERSION, 0L);
+        document.put(CREATED_DATE, now);
+        document.put(LAST_MODIFIED_DATE, now);
+
+        return document;
+    }
+}
@@ -1,25 +1,62 @@
 package net.frey.mongo.service;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.model.BeerStyleStatsDTO;
+import net.frey.mongo.model.BulkResultDTO;
+import net.frey.mongo.model.ChangeEventDTO;
+import net.frey.mongo.model.InventoryAdjustmentDTO;
+import net.frey.mongo.model.InventoryResultDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface BeerService {
     Flux<BeerDTO> listBeers();
 
+    Flux<BeerDTO> listBeers(String after, int limit);
+
     Mono<BeerDTO> getById(String id);
 
+    Mono<BeerDTO> getById(String id, Set<String> fields);
+
+    Mono<Map<String, BeerDTO>> getByIds(Collection<String> ids);
+
     Mono<BeerDTO> findFirstByBeerName(String beerName);
 
     Flux<BeerDTO> findByBeerStyle(String beerStyle);
 
+    Flux<BeerDTO> findByBeerStyle(String beerStyle, String after, int limit);
+
+    Flux<BeerDTO> findBeers(String beerStyle, String after, int limit, Set<String> fields);
+
     Mono<BeerDTO> saveBeer(Mono<BeerDTO> beer);
 
     Mono<BeerDTO> saveBeer(BeerDTO beer);
 
+    Mono<BulkResultDTO> saveBeers(Flux<BulkInserter.Item<BeerDTO>> beers, int batchSize);
+
     Mono<BeerDTO> updateBeer(String id, BeerDTO beer);
 
+    Mono<BeerDTO> updateBeer(String id, BeerDTO beer, Long expectedVersion);
+
     Mono<BeerDTO> patchBeer(String id, BeerDTO beer);
 
+    Mono<BeerDTO> patchBeer(String id, BeerDTO beer, Long expectedVersion);
+
+    Flux<BeerStyleStatsDTO> styleStats(String beerStyle, BigDecimal minPrice, BigDecimal maxPrice);
+
+    Mono<InventoryResultDTO> adjustInventory(String id, int delta);
+
+    Flux<InventoryResultDTO> adjustInventory(Flux<InventoryAdjustmentDTO> adjustments);
+
     Mono<Void> deleteById(String id);
+
+    Flux<BeerDTO> exportBeers(int batchSize);
+
+    Flux<BeerDTO> searchBeers(String text, int limit);
+
+    Flux<ChangeEventDTO<BeerDTO>> changes(String resumeToken, String beerStyle);
 }
@@ -1,9 +1,55 @@
 package net.frey.mongo.service;
 
+import static net.frey.mongo.model.InventoryResultDTO.Status.APPLIED;
+import static net.frey.mongo.model.InventoryResultDTO.Status.INSUFFICIENT_STOCK;
+import static net.frey.mongo.model.InventoryResultDTO.Status.NOT_FOUND;
+import static net.frey.mongo.service.Projections.withFields;
+import static net.frey.mongo.service.Updates.isEmpty;
+import static net.frey.mongo.service.Updates.setIfPresent;
+import static net.frey.mongo.service.Updates.setOrUnset;
+import static net.frey.mongo.service.Versions.requireVersion;
+import static net.frey.mongo.service.Versions.staleOrMissing;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.addFields;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.MongoClientProperties;
+import net.frey.mongo.domain.Beer;
 import net.frey.mongo.mapper.BeerMapper;
 import net.frey.mongo.model.BeerDTO;
+import net.frey.mongo.model.BeerStyleStatsDTO;
+import net.frey.mongo.model.BulkResultDTO;
+import net.frey.mongo.model.ChangeEventDTO;
+import net.frey.mongo.model.InventoryAdjustmentDTO;
+import net.frey.mongo.model.InventoryResultDTO;
 import net.frey.mongo.repository.BeerRepository;
+import net.frey.mongo.repository.NameSearch;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -11,17 +57,43 @@ import reactor.core.publisher.Mono;
 @Service
 @RequiredArgsConstructor
 public class BeerServiceImpl implements BeerService {
+    private static final String ID_KEY = "id:";
+    private static final String NAME_KEY = "name:";
+    private static final String STYLE_KEY = "style:";
+    private static final int INVENTORY_CONCURRENCY = 32;
+    private static final String PRICE_VALUE = "priceValue";
+
     private final BeerMapper mapper;
     private final BeerRepository repository;
+    private final ReactiveMongoTemplate template;
+    private final BulkInserter bulkInserter;
+    private final ReadThroughCache<BeerDTO> cache;
+    private final SingleFlight queries;
+    private final WriteBehindBatcher<Beer> writeBehind;
+    private final ChangeFeed<Beer, BeerDTO> changeFeed;
+    private final MongoClientProperties clientProperties;
 
     @Override
     public Flux<BeerDTO> listBeers() {
         return repository.findAll().map(mapper::entityToDto);
     }
 
+    @Override
+    public Flux<BeerDTO> listBeers(String after, int limit) {
+        Flux<Beer> page = after == null
+                ? repository.findAllBy(keysetPage(limit))
+                : repository.findByIdGreaterThan(after, keysetPage(limit));
+
+        return page.map(mapper::entityToDto);
+    }
+
     @Override
     public Mono<BeerDTO> findFirstByBeerName(String beerName) {
-        return repository.findFirstByBeerName(beerName).map(mapper::entityToDto);
+        // primes the id entry too, since its cached name is how a later write finds this entry to invalidate
+        return cache.get(NAME_KEY + beerName, () -> repository
+                .findFirstByBeerName(beerName)
+                .map(mapper::entityToDto)
+                .doOnNext(beer -> cache.putIfAbsent(ID_KEY + beer.getId(), beer)));
     }
 
     @Override
@@ -29,67 +101,258 @@ public class BeerServiceImpl implements BeerService {
         return repository.findByBeerStyle(beerStyle).map(mapper::entityToDto);
     }
 
+    @Override
+    public Flux<BeerDTO> findByBeerStyle(String beerStyle, String after, int limit) {
+        Flux<Beer> page = after == null
+                ? repository.findByBeerStyle(beerStyle, keysetPage(limit))
+                : repository.findByBeerStyleAndIdGreaterThan(beerStyle, after, keysetPage(limit));
+
+        String key = STYLE_KEY + beerStyle + ':' + after + ':' + limit;
+
+        return queries.execute(key, () -> page.map(mapper::entityToDto).collectList())
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Flux<BeerDTO> findBeers(String beerStyle, String after, int limit, Set<String> fields) {
+        Query query = new Query().with(Sort.by(ASC, "id")).limit(limit).maxTime(clientProperties.maxTime());
+
+        if (beerStyle != null) {
+            query.addCriteria(where("beerStyle").is(beerStyle));
+        }
+
+        if (after != null) {
+            query.addCriteria(where("id").gt(after));
+        }
+
+        return template.find(withFields(query, fields), Beer.class).map(mapper::entityToDto);
+    }
+
+    @Override
+    public Mono<BeerDTO> getById(String id, Set<String> fields) {
+        Query query = query(where("id").is(id)).maxTime(clientProperties.maxTime());
+
+        return template.findOne(withFields(query, fields), Beer.class).map(mapper::entityToDto);
+    }
+
+    @Override
+    public Mono<Map<String, BeerDTO>> getByIds(Collection<String> ids) {
+        return repository
+                .findAllById(new LinkedHashSet<>(ids))
+                .map(mapper::entityToDto)
+                .collectMap(BeerDTO::getId);
+    }
+
     @Override
     public Mono<BeerDTO> getById(String id) {
-        return repository.findById(id).map(mapper::entityToDto);
+        return cache.get(ID_KEY + id, () -> repository.findById(id).map(mapper::entityToDto));
     }
 
     @Override
     public Mono<BeerDTO> saveBeer(Mono<BeerDTO> beerDTO) {
-        return beerDTO.map(mapper::dtoToEntity).flatMap(repository::save).map(mapper::entityToDto);
+        return beerDTO.map(mapper::dtoToEntity)
+                .flatMap(this::save)
+                .map(mapper::entityToDto)
+                .doOnNext(saved -> invalidate(saved.getId(), saved));
     }
 
     @Override
     public Mono<BeerDTO> saveBeer(BeerDTO beer) {
-        return repository.save(mapper.dtoToEntity(beer)).map(mapper::entityToDto);
+        return save(mapper.dtoToEntity(beer))
+                .map(mapper::entityToDto)
+                .doOnNext(saved -> invalidate(saved.getId(), saved));
+    }
+
+    @Override
+    public Mono<BulkResultDTO> saveBeers(Flux<BulkInserter.Item<BeerDTO>> beers, int batchSize) {
+        return bulkInserter
+                .insert(beers, "beerDto", mapper::dtoToEntity, Beer.class, batchSize)
+                .doFinally(signal -> forgetQueries());
     }
 
     @Override
     public Mono<BeerDTO> updateBeer(String id, BeerDTO beer) {
-        return repository
-                .findById(id)
-                .map(foundBeer -> {
-                    foundBeer.setBeerName(beer.getBeerName());
-                    foundBeer.setBeerStyle(beer.getBeerStyle());
-                    foundBeer.setPrice(beer.getPrice());
-                    foundBeer.setUpc(beer.getUpc());
-                    foundBeer.setQuantityOnHand(beer.getQuantityOnHand());
-
-                    return foundBeer;
-                })
-                .flatMap(repository::save)
-                .map(mapper::entityToDto);
+        return updateBeer(id, beer, null);
+    }
+
+    @Override
+    public Mono<BeerDTO> updateBeer(String id, BeerDTO beer, Long expectedVersion) {
+        Update update = new Update();
+        setOrUnset(update, "beerName", beer.getBeerName());
+        setOrUnset(update, "beerStyle", beer.getBeerStyle());
+        setOrUnset(update, "price", beer.getPrice());
+        setOrUnset(update, "upc", beer.getUpc());
+        setOrUnset(update, "quantityOnHand", beer.getQuantityOnHand());
+
+        return modify(id, expectedVersion, update);
     }
 
     @Override
     public Mono<BeerDTO> patchBeer(String id, BeerDTO beer) {
-        return repository
-                .findById(id)
-                .map(foundBeer -> {
-                    if (beer.getBeerName() != null) {
-                        foundBeer.setBeerName(beer.getBeerName());
-                    }
+        return patchBeer(id, beer, null);
+    }
 
-                    if (beer.getBeerStyle() != null) {
-                        foundBeer.setBeerStyle(beer.getBeerStyle());
-                    }
+    @Override
+    public Mono<BeerDTO> patchBeer(String id, BeerDTO beer, Long expectedVersion) {
+        Update update = new Update();
+        setIfPresent(update, "beerName", beer.getBeerName());
+        setIfPresent(update, "beerStyle", beer.getBeerStyle());
+        setIfPresent(update, "upc", beer.getUpc());
+        setIfPresent(update, "price", beer.getPrice());
+        setIfPresent(update, "quantityOnHand", beer.getQuantityOnHand());
+
+        return isEmpty(update)
+                ? requireVersion(getById(id), id, expectedVersion, BeerDTO::getVersion)
+                : modify(id, expectedVersion, update);
+    }
+
+    @Override
+    public Flux<BeerStyleStatsDTO> styleStats(String beerStyle, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<AggregationOperation> stages = new ArrayList<>();
 
-                    if (beer.getUpc() != null) {
-                        foundBeer.setUpc(beer.getUpc());
-                    }
+        if (beerStyle != null) {
+            stages.add(match(where("beerStyle").is(beerStyle)));
+        }
 
-                    if (beer.getPrice() != null) {
-                        foundBeer.setPrice(beer.getPrice());
-                    }
+        // price is persisted as Decimal128, but documents written before that hold a string, so compare and aggregate
+        // on the converted value
+        stages.add(addFields()
+                .addFieldWithValue(PRICE_VALUE, ConvertOperators.valueOf("price").convertToDecimal())
+                .build());
 
-                    return foundBeer;
+        if (minPrice != null || maxPrice != null) {
+            Criteria priceRange = where(PRICE_VALUE);
+
+            if (minPrice != null) {
+                priceRange.gte(new Decimal128(minPrice));
+            }
+
+            if (maxPrice != null) {
+                priceRange.lte(new Decimal128(maxPrice));
+            }
+
+            stages.add(match(priceRange));
+        }
+
+        stages.add(group("beerStyle")
+                .count()
+                .as("count")
+                .sum("quantityOnHand")
+                .as("totalQuantityOnHand")
+                .min(PRICE_VALUE)
+                .as("minPrice")
+                .avg(PRICE_VALUE)
+                .as("avgPrice")
+                .max(PRICE_VALUE)
+                .as("maxPrice"));
+        stages.add(project("count", "totalQuantityOnHand", "minPrice", "avgPrice", "maxPrice")
+                .and("beerStyle")
+                .previousOperation());
+        stages.add(sort(ASC, "beerStyle"));
+
+        AggregationOptions options = AggregationOptions.builder().maxTime(clientProperties.maxTime()).build();
+
+        return template.aggregate(
+                newAggregation(stages).withOptions(options),
+                template.getCollectionName(Beer.class),
+                BeerStyleStatsDTO.class);
+    }
+
+    @Override
+    public Mono<InventoryResultDTO> adjustInventory(String id, int delta) {
+        return repository
+                .adjustQuantityOnHand(id, delta)
+                .doOnNext(beer -> {
+                    cache.invalidate(ID_KEY + id);
+                    cache.invalidate(NAME_KEY + beer.getBeerName());
+                    forgetQueries();
                 })
-                .flatMap(repository::save)
-                .map(mapper::entityToDto);
+                .map(beer -> new InventoryResultDTO(id, beer.getQuantityOnHand(), APPLIED))
+                .switchIfEmpty(Mono.defer(() -> repository
+                        .existsById(id)
+                        .map(exists -> new InventoryResultDTO(id, null, exists ? INSUFFICIENT_STOCK : NOT_FOUND))));
+    }
+
+    @Override
+    public Flux<InventoryResultDTO> adjustInventory(Flux<InventoryAdjustmentDTO> adjustments) {
+        return adjustments.flatMapSequential(
+                adjustment -> adjustInventory(adjustment.getBeerId(), adjustment.getDelta()),
+                INVENTORY_CONCURRENCY);
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
-        return repository.deleteById(id);
+        return Mono.defer(() -> {
+            BeerDTO cached = cache.getIfLoaded(ID_KEY + id);
+
+            return repository.deleteById(id).doFinally(signal -> invalidate(id, cached));
+        });
+    }
+
+    @Override
+    public Flux<BeerDTO> searchBeers(String text, int limit) {
+        String terms = String.join(" ", NameSearch.terms(text));
+        Flux<Beer> byPrefix = repository.findByBeerNamePrefix(terms, limit);
+
+        if (!terms.contains(" ")) {
+            return byPrefix.map(mapper::entityToDto);
+        }
+
+        // names starting with the whole query rank above text matches on its separate words
+        return Flux.concat(byPrefix, repository.searchText(terms, limit))
+                .distinct(Beer::getId)
+                .take(limit)
+                .map(mapper::entityToDto);
+    }
+
+    @Override
+    public Flux<BeerDTO> exportBeers(int batchSize) {
+        // decoded by BeerCodec straight from the wire, skipping the Document and the mapping converter
+        return template.getCollection(template.getCollectionName(Beer.class))
+                .flatMapMany(collection ->
+                        collection.withDocumentClass(Beer.class).find().batchSize(batchSize))
+                .map(mapper::entityToDto);
+    }
+
+    @Override
+    public Flux<ChangeEventDTO<BeerDTO>> changes(String resumeToken, String beerStyle) {
+        return changeFeed.subscribe(resumeToken, beer -> beerStyle == null || beerStyle.equals(beer.getBeerStyle()));
+    }
+
+    private Mono<Beer> save(Beer beer) {
+        return writeBehind.isEnabled() && beer.getId() == null ? writeBehind.insert(beer) : repository.save(beer);
+    }
+
+    /** The cached pre-image, if any, tells which name entry the write may have left stale besides the new name's. */
+    private Mono<BeerDTO> modify(String id, Long expectedVersion, Update update) {
+        return Mono.defer(() -> {
+            BeerDTO cached = cache.getIfLoaded(ID_KEY + id);
+
+            return repository
+                    .modify(id, expectedVersion, update)
+                    .switchIfEmpty(staleOrMissing(id, expectedVersion, () -> repository.existsById(id)))
+                    .map(mapper::entityToDto)
+                    .doOnNext(saved -> cache.invalidate(NAME_KEY + saved.getBeerName()))
+                    .doFinally(signal -> invalidate(id, cached));
+        });
+    }
+
+    /** Drops the id entry and, when {@code beer} is known, the entry for its name. */
+    private void invalidate(String id, BeerDTO beer) {
+        cache.invalidate(ID_KEY + id);
+
+        if (beer != null) {
+            cache.invalidate(NAME_KEY + beer.getBeerName());
+        }
+
+        forgetQueries();
+    }
+
+    private void forgetQueries() {
+        queries.forgetIf(key -> key.startsWith(STYLE_KEY));
+    }
+
+    private static Pageable keysetPage(int limit) {
+        return PageRequest.of(0, limit, ASC, "id");
     }
 }
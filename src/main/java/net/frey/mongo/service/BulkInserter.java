@@ -0,0 +1,127 @@
+package net.frey.mongo.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import net.frey.mongo.model.BulkFailureDTO;
+import net.frey.mongo.model.BulkResultDTO;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Validates a stream of DTOs and writes the valid ones with unordered {@code insertMany} calls, one per batch. A
+ * failing record, including one that could not be decoded in the first place, never aborts the stream; it is reported
+ * by its position in the input instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkInserter {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 5000;
+    static final int MAX_REPORTED_FAILURES = 1000;
+    private static final int CONCURRENT_BATCHES = 4;
+
+    private final ReactiveMongoTemplate template;
+    private final Validator validator;
+
+    public <D, E> Mono<BulkResultDTO> insert(
+            Flux<Item<D>> records, String objectName, Function<D, E> toEntity, Class<E> entityClass, int batchSize) {
+        String collectionName = template.getCollectionName(entityClass);
+
+        return records.index()
+                .map(indexed -> toRecord(indexed, objectName, toEntity))
+                .buffer(batchSize)
+                .flatMap(batch -> write(collectionName, batch), CONCURRENT_BATCHES)
+                .reduce(emptyResult(), BulkInserter::merge);
+    }
+
+    private <D, E> Record toRecord(Tuple2<Long, Item<D>> indexed, String objectName, Function<D, E> toEntity) {
+        Item<D> item = indexed.getT2();
+
+        if (item.failure() != null) {
+            return new Record(indexed.getT1(), null, item.failure());
+        }
+
+        D dto = item.value();
+        Errors errors = new BeanPropertyBindingResult(dto, objectName);
+
+        validator.validate(dto, errors);
+
+        if (errors.hasErrors()) {
+            return new Record(indexed.getT1(), null, errors.toString());
+        }
+
+        return new Record(indexed.getT1(), Inserts.toDocument(template, toEntity.apply(dto)), null);
+    }
+
+    private Mono<BulkResultDTO> write(String collectionName, List<Record> batch) {
+        List<BulkFailureDTO> failures = new ArrayList<>();
+        List<Record> valid = new ArrayList<>(batch.size());
+
+        for (Record record : batch) {
+            if (record.failure() == null) {
+                valid.add(record);
+            } else {
+                failures.add(new BulkFailureDTO(record.index(), record.failure()));
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return Mono.just(new BulkResultDTO(batch.size(), 0, failures.size(), failures));
+        }
+
+        List<Document> documents = valid.stream().map(Record::document).toList();
+
+        return Inserts.insertMany(template, collectionName, documents)
+                .map(result -> new BulkResultDTO(
+                        batch.size(), result.getInsertedIds().size(), failures.size(), failures))
+                .onErrorResume(MongoBulkWriteException.class, e -> {
+                    for (BulkWriteError error : e.getWriteErrors()) {
+                        failures.add(new BulkFailureDTO(valid.get(error.getIndex()).index(), error.getMessage()));
+                    }
+
+                    return Mono.just(new BulkResultDTO(
+                            batch.size(), e.getWriteResult().getInsertedCount(), failures.size(), failures));
+                });
+    }
+
+    private static BulkResultDTO emptyResult() {
+        return new BulkResultDTO(0, 0, 0, new ArrayList<>());
+    }
+
+    private static BulkResultDTO merge(BulkResultDTO total, BulkResultDTO batch) {
+        total.setReceived(total.getReceived() + batch.getReceived());
+        total.setInserted(total.getInserted() + batch.getInserted());
+        total.setFailed(total.getFailed() + batch.getFailed());
+
+        List<BulkFailureDTO> failures = total.getFailures();
+        batch.getFailures().stream()
+                .limit(Math.max(0, MAX_REPORTED_FAILURES - failures.size()))
+                .forEach(failures::add);
+
+        return total;
+    }
+
+    /** One decoded input record, or the reason it could not be decoded. */
+    public record Item<D>(D value, String failure) {
+        public static <D> Item<D> of(D value) {
+            return new Item<>(value, null);
+        }
+
+        public static <D> Item<D> failed(String failure) {
+            return new Item<>(null, failure);
+        }
+    }
+
+    private record Record(long index, Document document, String failure) {}
+}
@@ -0,0 +1,182 @@
+package net.frey.mongo.service;
+
+import com.mongodb.MongoCursorNotFoundException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import net.frey.mongo.model.ChangeEventDTO;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+/**
+ * Fans the change stream of one collection out to any number of subscribers. All live subscribers share a single
+ * server-side cursor, opened with the first subscriber and closed with the last; if it breaks it is reopened from the
+ * last event seen. A subscriber reconnecting with a resume token gets its own cursor resumed from that token, since the
+ * shared one cannot rewind. Only failures that reopening can cure are retried; anything else, such as a deployment
+ * that does not support change streams or a resume point that has fallen off the oplog, ends every subscriber's
+ * stream with that error. Every subscriber has a bounded buffer and is dropped with an error when it overflows, so a
+ * slow consumer never holds back the others.
+ */
+public class ChangeFeed<E, D> {
+    private static final String TOKEN_KEY = "_data";
+    private static final String RESUMABLE_LABEL = "ResumableChangeStreamError";
+    private static final String NON_RESUMABLE_LABEL = "NonResumableChangeStreamError";
+    private static final Set<Integer> NON_RESUMABLE_CODES = Set.of(
+            115, // CommandNotSupported
+            286, // ChangeStreamHistoryLost
+            40573); // $changeStream outside a replica set or sharded cluster
+
+    private final ReactiveMongoTemplate template;
+    private final Class<E> entityClass;
+    private final Function<E, D> mapper;
+    private final int subscriberBuffer;
+    private final AtomicReference<BsonValue> lastSeen = new AtomicReference<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Flux<ChangeEventDTO<D>> shared;
+
+    private Counter dropped;
+
+    public ChangeFeed(
+            ReactiveMongoTemplate template,
+            Class<E> entityClass,
+            Function<E, D> mapper,
+            int subscriberBuffer,
+            Duration maxReconnectBackoff) {
+        this.template = template;
+        this.entityClass = entityClass;
+        this.mapper = mapper;
+        this.subscriberBuffer = subscriberBuffer;
+        this.shared = Flux.defer(() -> open(lastSeen.get()))
+                .doOnNext(event -> lastSeen.set(event.getResumeToken()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(maxReconnectBackoff)
+                        .filter(ChangeFeed::isResumable))
+                .doFinally(signal -> lastSeen.set(null))
+                .map(this::toDto)
+                .share();
+    }
+
+    /**
+     * Changes from now on, or from just after {@code resumeToken} when one is given. Deletions carry no document, so
+     * they are delivered regardless of {@code filter}.
+     */
+    public Flux<ChangeEventDTO<D>> subscribe(String resumeToken, Predicate<D> filter) {
+        Flux<ChangeEventDTO<D>> events = resumeToken == null
+                ? shared
+                : open(new BsonDocument(TOKEN_KEY, new BsonString(resumeToken))).map(this::toDto);
+
+        return events.filter(event -> event.getDocument() == null || filter.test(event.getDocument()))
+                .onBackpressureBuffer(subscriberBuffer, overflow -> {
+                    if (dropped != null) {
+                        dropped.increment();
+                    }
+                })
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private Flux<ChangeStreamEvent<E>> open(BsonValue resumeToken) {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options =
+                ChangeStreamOptions.builder().returnFullDocumentOnUpdate();
+
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+
+        return template.changeStream(template.getCollectionName(entityClass), options.build(), entityClass);
+    }
+
+    /**
+     * Network failures, elections and errors the server labels resumable. Template errors arrive translated, so the
+     * driver exception is looked for among the causes.
+     */
+    static boolean isResumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo) {
+                return isResumable(mongo);
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isResumable(MongoException error) {
+        if (NON_RESUMABLE_CODES.contains(error.getCode()) || error.hasErrorLabel(NON_RESUMABLE_LABEL)) {
+            return false;
+        }
+
+        return error.hasErrorLabel(RESUMABLE_LABEL)
+                || error instanceof MongoSocketException
+                || error instanceof MongoTimeoutException
+                || error instanceof MongoNotPrimaryException
+                || error instanceof MongoNodeIsRecoveringException
+                || error instanceof MongoCursorNotFoundException;
+    }
+
+    private ChangeEventDTO<D> toDto(ChangeStreamEvent<E> event) {
+        E body = event.getBody();
+
+        return ChangeEventDTO.<D>builder()
+                .resumeToken(token(event.getResumeToken()))
+                .operation(event.getOperationType() == null ? null : event.getOperationType().getValue())
+                .id(documentId(event))
+                .document(body == null ? null : mapper.apply(body))
+                .build();
+    }
+
+    private static String documentId(ChangeStreamEvent<?> event) {
+        if (event.getRaw() == null || event.getRaw().getDocumentKey() == null) {
+            return null;
+        }
+
+        BsonValue id = event.getRaw().getDocumentKey().get("_id");
+
+        if (id == null) {
+            return null;
+        }
+
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private static String token(BsonValue resumeToken) {
+        if (resumeToken == null || !resumeToken.isDocument()) {
+            return null;
+        }
+
+        BsonValue data = resumeToken.asDocument().get(TOKEN_KEY);
+
+        return data != null && data.isString() ? data.asString().getValue() : null;
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        dropped = Counter.builder("changes.subscribers.dropped")
+                .description("Change feed subscribers disconnected because their buffer overflowed")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("changes.subscribers", subscribers, AtomicInteger::get)
+                .description("Connected change feed subscribers")
+                .tag("name", name)
+                .register(registry);
+    }
+}
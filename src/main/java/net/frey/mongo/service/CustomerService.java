@@ -1,5 +1,10 @@
 package net.frey.mongo.service;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import net.frey.mongo.model.BulkResultDTO;
+import net.frey.mongo.model.ChangeEventDTO;
 import net.frey.mongo.model.CustomerDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -7,15 +12,35 @@ import reactor.core.publisher.Mono;
 public interface CustomerService {
     Flux<CustomerDTO> listCustomers();
 
+    Flux<CustomerDTO> listCustomers(String after, int limit);
+
+    Flux<CustomerDTO> findCustomers(String after, int limit, Set<String> fields);
+
     Mono<CustomerDTO> getById(String id);
 
+    Mono<CustomerDTO> getById(String id, Set<String> fields);
+
+    Mono<Map<String, CustomerDTO>> getByIds(Collection<String> ids);
+
     Mono<CustomerDTO> findFirstByName(String customerName);
 
     Mono<CustomerDTO> saveCustomer(Mono<CustomerDTO> customer);
 
+    Mono<BulkResultDTO> saveCustomers(Flux<BulkInserter.Item<CustomerDTO>> customers, int batchSize);
+
     Mono<CustomerDTO> updateCustomer(String id, CustomerDTO customer);
 
+    Mono<CustomerDTO> updateCustomer(String id, CustomerDTO customer, Long expectedVersion);
+
     Mono<CustomerDTO> patchCustomer(String id, CustomerDTO customer);
 
+    Mono<CustomerDTO> patchCustomer(String id, CustomerDTO customer, Long expectedVersion);
+
     Mono<Void> deleteById(String id);
+
+    Flux<CustomerDTO> exportCustomers(int batchSize);
+
+    Flux<CustomerDTO> searchCustomers(String text, int limit);
+
+    Flux<ChangeEventDTO<CustomerDTO>> changes(String resumeToken);
 }
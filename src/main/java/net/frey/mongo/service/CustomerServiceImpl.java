@@ -1,9 +1,34 @@
 package net.frey.mongo.service;
 
+import static net.frey.mongo.service.Projections.withFields;
+import static net.frey.mongo.service.Updates.isEmpty;
+import static net.frey.mongo.service.Updates.setIfPresent;
+import static net.frey.mongo.service.Updates.setOrUnset;
+import static net.frey.mongo.service.Versions.requireVersion;
+import static net.frey.mongo.service.Versions.staleOrMissing;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import net.frey.mongo.config.MongoClientProperties;
+import net.frey.mongo.domain.Customer;
 import net.frey.mongo.mapper.CustomerMapper;
+import net.frey.mongo.model.BulkResultDTO;
+import net.frey.mongo.model.ChangeEventDTO;
 import net.frey.mongo.model.CustomerDTO;
 import net.frey.mongo.repository.CustomerRepository;
+import net.frey.mongo.repository.NameSearch;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -11,59 +36,175 @@ import reactor.core.publisher.Mono;
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
+    private static final String ID_KEY = "id:";
+    private static final String NAME_KEY = "name:";
+
     private final CustomerMapper mapper;
     private final CustomerRepository repository;
+    private final ReactiveMongoTemplate template;
+    private final BulkInserter bulkInserter;
+    private final ReadThroughCache<CustomerDTO> cache;
+    private final ChangeFeed<Customer, CustomerDTO> changeFeed;
+    private final MongoClientProperties clientProperties;
 
     @Override
     public Flux<CustomerDTO> listCustomers() {
         return repository.findAll().map(mapper::entityToDto);
     }
 
+    @Override
+    public Flux<CustomerDTO> listCustomers(String after, int limit) {
+        Flux<Customer> page = after == null
+                ? repository.findAllBy(keysetPage(limit))
+                : repository.findByIdGreaterThan(after, keysetPage(limit));
+
+        return page.map(mapper::entityToDto);
+    }
+
+    @Override
+    public Flux<CustomerDTO> findCustomers(String after, int limit, Set<String> fields) {
+        Query query = new Query().with(Sort.by(ASC, "id")).limit(limit).maxTime(clientProperties.maxTime());
+
+        if (after != null) {
+            query.addCriteria(where("id").gt(after));
+        }
+
+        return template.find(withFields(query, fields), Customer.class).map(mapper::entityToDto);
+    }
+
+    @Override
+    public Mono<CustomerDTO> getById(String id, Set<String> fields) {
+        Query query = query(where("id").is(id)).maxTime(clientProperties.maxTime());
+
+        return template.findOne(withFields(query, fields), Customer.class).map(mapper::entityToDto);
+    }
+
+    @Override
+    public Mono<Map<String, CustomerDTO>> getByIds(Collection<String> ids) {
+        return repository
+                .findAllById(new LinkedHashSet<>(ids))
+                .map(mapper::entityToDto)
+                .collectMap(CustomerDTO::getId);
+    }
+
     @Override
     public Mono<CustomerDTO> getById(String id) {
-        return repository.findById(id).map(mapper::entityToDto);
+        return cache.get(ID_KEY + id, () -> repository.findById(id).map(mapper::entityToDto));
     }
 
     @Override
     public Mono<CustomerDTO> findFirstByName(String customerName) {
-        return repository.findFirstByCustomerName(customerName).map(mapper::entityToDto);
+        // primes the id entry too, since its cached name is how a later write finds this entry to invalidate
+        return cache.get(NAME_KEY + customerName, () -> repository
+                .findFirstByCustomerName(customerName)
+                .map(mapper::entityToDto)
+                .doOnNext(customer -> cache.putIfAbsent(ID_KEY + customer.getId(), customer)));
     }
 
     @Override
     public Mono<CustomerDTO> saveCustomer(Mono<CustomerDTO> customerDto) {
-        return customerDto.map(mapper::dtoToEntity).flatMap(repository::save).map(mapper::entityToDto);
+        return customerDto
+                .map(mapper::dtoToEntity)
+                .flatMap(repository::save)
+                .map(mapper::entityToDto)
+                .doOnNext(saved -> invalidate(saved.getId(), saved));
+    }
+
+    @Override
+    public Mono<BulkResultDTO> saveCustomers(Flux<BulkInserter.Item<CustomerDTO>> customers, int batchSize) {
+        // new customers never stale a name entry: a name that found no customer was not cached
+        return bulkInserter.insert(customers, "customerDto", mapper::dtoToEntity, Customer.class, batchSize);
     }
 
     @Override
     public Mono<CustomerDTO> updateCustomer(String id, CustomerDTO customer) {
-        return repository
-                .findById(id)
-                .map(foundCustomer -> {
-                    foundCustomer.setCustomerName(customer.getCustomerName());
+        return updateCustomer(id, customer, null);
+    }
 
-                    return foundCustomer;
-                })
-                .flatMap(repository::save)
-                .map(mapper::entityToDto);
+    @Override
+    public Mono<CustomerDTO> updateCustomer(String id, CustomerDTO customer, Long expectedVersion) {
+        Update update = new Update();
+        setOrUnset(update, "customerName", customer.getCustomerName());
+
+        return modify(id, expectedVersion, update);
     }
 
     @Override
     public Mono<CustomerDTO> patchCustomer(String id, CustomerDTO customer) {
-        return repository
-                .findById(id)
-                .map(foundCustomer -> {
-                    if (customer.getCustomerName() != null) {
-                        foundCustomer.setCustomerName(customer.getCustomerName());
-                    }
-
-                    return foundCustomer;
-                })
-                .flatMap(repository::save)
-                .map(mapper::entityToDto);
+        return patchCustomer(id, customer, null);
+    }
+
+    @Override
+    public Mono<CustomerDTO> patchCustomer(String id, CustomerDTO customer, Long expectedVersion) {
+        Update update = new Update();
+        setIfPresent(update, "customerName", customer.getCustomerName());
+
+        return isEmpty(update)
+                ? requireVersion(getById(id), id, expectedVersion, CustomerDTO::getVersion)
+                : modify(id, expectedVersion, update);
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
-        return repository.deleteById(id);
+        return Mono.defer(() -> {
+            CustomerDTO cached = cache.getIfLoaded(ID_KEY + id);
+
+            return repository.deleteById(id).doFinally(signal -> invalidate(id, cached));
+        });
+    }
+
+    @Override
+    public Flux<CustomerDTO> searchCustomers(String text, int limit) {
+        String terms = String.join(" ", NameSearch.terms(text));
+        Flux<Customer> byPrefix = repository.findByCustomerNamePrefix(terms, limit);
+
+        if (!terms.contains(" ")) {
+            return byPrefix.map(mapper::entityToDto);
+        }
+
+        // names starting with the whole query rank above text matches on its separate words
+        return Flux.concat(byPrefix, repository.searchText(terms, limit))
+                .distinct(Customer::getId)
+                .take(limit)
+                .map(mapper::entityToDto);
+    }
+
+    @Override
+    public Flux<CustomerDTO> exportCustomers(int batchSize) {
+        // decoded by CustomerCodec straight from the wire, skipping the Document and the mapping converter
+        return template.getCollection(template.getCollectionName(Customer.class))
+                .flatMapMany(collection ->
+                        collection.withDocumentClass(Customer.class).find().batchSize(batchSize))
+                .map(mapper::entityToDto);
+    }
+
+    @Override
+    public Flux<ChangeEventDTO<CustomerDTO>> changes(String resumeToken) {
+        return changeFeed.subscribe(resumeToken, customer -> true);
+    }
+
+    private Mono<CustomerDTO> modify(String id, Long expectedVersion, Update update) {
+        return Mono.defer(() -> {
+            CustomerDTO cached = cache.getIfLoaded(ID_KEY + id);
+
+            return repository
+                    .modify(id, expectedVersion, update)
+                    .switchIfEmpty(staleOrMissing(id, expectedVersion, () -> repository.existsById(id)))
+                    .map(mapper::entityToDto)
+                    .doOnNext(saved -> cache.invalidate(NAME_KEY + saved.getCustomerName()))
+                    .doFinally(signal -> invalidate(id, cached));
+        });
+    }
+
+    private void invalidate(String id, CustomerDTO customer) {
+        cache.invalidate(ID_KEY + id);
+
+        if (customer != null) {
+            cache.invalidate(NAME_KEY + customer.getCustomerName());
+        }
+    }
+
+    private static Pageable keysetPage(int limit) {
+        return PageRequest.of(0, limit, ASC, "id");
     }
 }
@@ -0,0 +1,32 @@
+package net.frey.mongo.service;
+
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.InsertManyResult;
+import java.util.List;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+/**
+ * Batched inserts that go straight to the collection rather than through the repository. Batches are unordered, so
+ * one failing document does not stop the rest of its batch from being written.
+ */
+final class Inserts {
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private Inserts() {}
+
+    /** The document a repository insert of {@code entity} would have written, audit fields included. */
+    static Document toDocument(ReactiveMongoTemplate template, Object entity) {
+        Document document = new Document();
+        template.getConverter().write(entity, document);
+
+        return AuditFields.stamp(document);
+    }
+
+    static Mono<InsertManyResult> insertMany(
+            ReactiveMongoTemplate template, String collectionName, List<Document> documents) {
+        return template.getCollection(collectionName)
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, UNORDERED)));
+    }
+}
@@ -0,0 +1,16 @@
+package net.frey.mongo.service;
+
+import java.util.Set;
+import org.springframework.data.mongodb.core.query.Query;
+
+final class Projections {
+    private Projections() {}
+
+    static Query withFields(Query query, Set<String> fields) {
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+
+        return query;
+    }
+}
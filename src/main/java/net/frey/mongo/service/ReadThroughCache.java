@@ -0,0 +1,73 @@
+package net.frey.mongo.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Size and TTL bounded cache of mapped DTOs. Concurrent misses on the same key share a single load, and a load keeps
+ * running for the other waiters when one of them cancels. Empty results are not cached. A maximum size of zero turns
+ * the cache off, so every get runs its loader.
+ */
+public class ReadThroughCache<V> {
+    private final AsyncCache<String, V> cache;
+
+    public ReadThroughCache(long maximumSize, Duration ttl) {
+        cache = maximumSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .buildAsync()
+                : null;
+    }
+
+    public Mono<V> get(String key, Supplier<Mono<V>> loader) {
+        if (cache == null) {
+            return Mono.defer(loader);
+        }
+
+        return Mono.defer(() -> Mono.fromFuture(
+                cache.get(key, (k, executor) -> loader.get().toFuture()).copy()));
+    }
+
+    public void invalidate(String key) {
+        if (cache != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+
+    /** The value under {@code key} if it has finished loading, without loading it or counting a hit or miss. */
+    public V getIfLoaded(String key) {
+        CompletableFuture<V> value = cache == null ? null : cache.asMap().get(key);
+
+        return value != null && value.isDone() && !value.isCompletedExceptionally() ? value.getNow(null) : null;
+    }
+
+    /** Caches {@code value} under {@code key} unless something is already cached or loading there. */
+    public void putIfAbsent(String key, V value) {
+        if (cache != null) {
+            cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(value));
+        }
+    }
+
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache == null ? 0 : cache.synchronous().estimatedSize();
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache.synchronous(), name);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package net.frey.mongo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deduplicates concurrent identical queries: callers asking for a key that is already being loaded share that load
+ * instead of starting their own. Nothing is retained once the load completes, so a caller arriving afterwards always
+ * runs a fresh query. A caller that cancels only detaches itself; the shared load keeps running for the others and is
+ * cancelled once the last of them has gone.
+ */
+public class SingleFlight {
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <V> Mono<V> execute(String key, Supplier<Mono<V>> query) {
+        return Mono.defer(() -> {
+            Mono<V> started = load(key, query);
+            Mono<V> shared = (Mono<V>) inFlight.putIfAbsent(key, started);
+
+            if (shared != null) {
+                coalesced.increment();
+                return shared;
+            }
+
+            return started;
+        });
+    }
+
+    /**
+     * Subscribes to the query when the first caller does and cancels it when every caller has cancelled, leaving the
+     * in-flight map once it completes, fails or is cancelled.
+     */
+    private <V> Mono<V> load(String key, Supplier<Mono<V>> query) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(query)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+        self.set(shared);
+
+        return shared;
+    }
+
+    /** Stops new callers from joining loads that were started before a write to the keys they cover. */
+    public void forgetIf(Predicate<String> keyPredicate) {
+        inFlight.keySet().removeIf(keyPredicate);
+    }
+
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        FunctionCounter.builder("queries.coalesced", coalesced, LongAdder::sum)
+                .description("Queries answered by joining an identical query already in flight")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("queries.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct queries currently in flight")
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,25 @@
+package net.frey.mongo.service;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+final class Updates {
+    private Updates() {}
+
+    static void setIfPresent(Update update, String key, Object value) {
+        if (value != null) {
+            update.set(key, value);
+        }
+    }
+
+    static void setOrUnset(Update update, String key, Object value) {
+        if (value == null) {
+            update.unset(key);
+        } else {
+            update.set(key, value);
+        }
+    }
+
+    static boolean isEmpty(Update update) {
+        return update.getUpdateObject().isEmpty();
+    }
+}
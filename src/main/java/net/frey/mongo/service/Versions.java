@@ -0,0 +1,37 @@
+package net.frey.mongo.service;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Optimistic locking for the {@code findAndModify} based writes. A versioned modification that matched nothing is
+ * either a missing document (empty) or a stale version ({@link OptimisticLockingFailureException}).
+ */
+final class Versions {
+    private Versions() {}
+
+    static <T> Mono<T> staleOrMissing(String id, Long expectedVersion, Supplier<Mono<Boolean>> exists) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+
+        return exists.get().flatMap(found -> found ? Mono.error(conflict(id, expectedVersion)) : Mono.empty());
+    }
+
+    static <T> Mono<T> requireVersion(Mono<T> current, String id, Long expectedVersion, Function<T, Long> version) {
+        if (expectedVersion == null) {
+            return current;
+        }
+
+        return current.flatMap(value -> Objects.equals(version.apply(value), expectedVersion)
+                ? Mono.just(value)
+                : Mono.error(conflict(id, expectedVersion)));
+    }
+
+    private static OptimisticLockingFailureException conflict(String id, Long expectedVersion) {
+        return new OptimisticLockingFailureException(id + " is no longer at version " + expectedVersion);
+    }
+}
@@ -0,0 +1,189 @@
+package net.frey.mongo.service;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import net.frey.mongo.config.WriteBehindProperties;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Collects single-entity inserts arriving at the same time into one unordered {@code insertMany}. A batch is written
+ * once it reaches the configured size or when the window that opened with its first entity closes, whichever comes
+ * first. Every caller still gets its own entity back with the generated id, or its own write error. Once the number of
+ * entities waiting or being written reaches the queue capacity new inserts are rejected with 503.
+ */
+public class WriteBehindBatcher<E> {
+    private final ReactiveMongoTemplate template;
+    private final Class<E> entityClass;
+    private final WriteBehindProperties properties;
+    private final Scheduler scheduler = Schedulers.parallel();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private List<Pending<E>> batch = new ArrayList<>();
+    private Counter rejected;
+    private DistributionSummary batchSizes;
+    private Timer flushes;
+
+    public WriteBehindBatcher(ReactiveMongoTemplate template, Class<E> entityClass, WriteBehindProperties properties) {
+        this.template = template;
+        this.entityClass = entityClass;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public Mono<E> insert(E entity) {
+        return Mono.create(sink -> enqueue(new Pending<>(entity, sink)));
+    }
+
+    private void enqueue(Pending<E> entry) {
+        if (pending.incrementAndGet() > properties.queueCapacity()) {
+            pending.decrementAndGet();
+            increment(rejected);
+            entry.sink().error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write queue is full"));
+            return;
+        }
+
+        List<Pending<E>> full = null;
+
+        lock.lock();
+        try {
+            batch.add(entry);
+
+            if (batch.size() >= properties.maxBatchSize()) {
+                full = batch;
+                batch = new ArrayList<>();
+            } else if (batch.size() == 1) {
+                List<Pending<E>> opened = batch;
+                scheduler.schedule(() -> flushIfOpen(opened), properties.window().toNanos(), NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            write(full);
+        }
+    }
+
+    private void flushIfOpen(List<Pending<E>> opened) {
+        lock.lock();
+        try {
+            if (batch != opened) {
+                return;
+            }
+
+            batch = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        write(opened);
+    }
+
+    private void write(List<Pending<E>> closed) {
+        long start = System.nanoTime();
+        List<Pending<E>> entries = new ArrayList<>(closed.size());
+        List<Document> documents = new ArrayList<>(closed.size());
+
+        for (Pending<E> entry : closed) {
+            try {
+                documents.add(Inserts.toDocument(template, entry.entity()));
+                entries.add(entry);
+            } catch (RuntimeException e) {
+                entry.sink().error(e);
+            }
+        }
+
+        if (entries.isEmpty()) {
+            pending.addAndGet(-closed.size());
+            return;
+        }
+
+        Inserts.insertMany(template, template.getCollectionName(entityClass), documents)
+                .doFinally(signal -> {
+                    pending.addAndGet(-closed.size());
+
+                    if (batchSizes != null) {
+                        batchSizes.record(closed.size());
+                        flushes.record(System.nanoTime() - start, NANOSECONDS);
+                    }
+                })
+                .subscribe(result -> succeed(entries, documents, List.of()), error -> fail(entries, documents, error));
+    }
+
+    private void fail(List<Pending<E>> entries, List<Document> documents, Throwable error) {
+        if (!(error instanceof MongoBulkWriteException e)) {
+            entries.forEach(entry -> entry.sink().error(error));
+            return;
+        }
+
+        succeed(entries, documents, e.getWriteErrors());
+
+        for (BulkWriteError writeError : e.getWriteErrors()) {
+            entries.get(writeError.getIndex())
+                    .sink()
+                    .error(new MongoWriteException(new WriteError(writeError), e.getServerAddress()));
+        }
+    }
+
+    private void succeed(List<Pending<E>> entries, List<Document> documents, List<BulkWriteError> errors) {
+        boolean[] failed = new boolean[entries.size()];
+        errors.forEach(error -> failed[error.getIndex()] = true);
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (!failed[i]) {
+                entries.get(i).sink().success(template.getConverter().read(entityClass, documents.get(i)));
+            }
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void bindTo(MeterRegistry registry, String name) {
+        rejected = Counter.builder("write.behind.rejected")
+                .description("Inserts rejected because the write-behind queue was full")
+                .tag("name", name)
+                .register(registry);
+        batchSizes = DistributionSummary.builder("write.behind.batch.size")
+                .description("Entities written per insertMany")
+                .tag("name", name)
+                .register(registry);
+        flushes = Timer.builder("write.behind.flush")
+                .description("Time from a batch being closed until its insertMany completes")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("write.behind.pending", pending, AtomicInteger::get)
+                .description("Entities waiting for or being written by a batch")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private record Pending<E>(E entity, MonoSink<E> sink) {}
+}
@@ -0,0 +1,50 @@
+package net.frey.mongo.bootstrap
+
+import net.frey.mongo.domain.Beer
+import net.frey.mongo.domain.Customer
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.test.context.ActiveProfiles
+import spock.lang.Specification
+
+@SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
+class IndexInitializerTest extends Specification {
+    @Autowired
+    ReactiveMongoTemplate template
+
+    @Autowired
+    IndexInitializer initializer
+
+    def "creates the declared and collated indexes"() {
+        when:
+        def beerIndexes = template.indexOps(Beer).getIndexInfo().collectList().block()
+        def customerIndexes = template.indexOps(Customer).getIndexInfo().collectList().block()
+
+        then:
+        beerIndexes*.name.containsAll(["beerName", "beerStyle_id", "beerName_ci"])
+        customerIndexes*.name.containsAll(["customerName", "customerName_ci"])
+        [beerIndexes, customerIndexes].every { indexes -> indexes.any { it.indexFields.any { it.text } } }
+
+        and:
+        [beerIndexes, customerIndexes].every { indexes ->
+            indexes.find { it.name.endsWith("_ci") }.collation.get().getInteger("strength") == 2
+        }
+    }
+
+    def "plans every repository query shape from an index"() {
+        given:
+        def previous = initializer.indexCheck
+        initializer.indexCheck = IndexInitializer.IndexCheck.FAIL
+
+        when:
+        initializer.run()
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        initializer.indexCheck = previous
+    }
+}
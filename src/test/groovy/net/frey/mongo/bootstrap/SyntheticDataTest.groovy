@@ -0,0 +1,33 @@
+package net.frey.mongo.bootstrap
+
+import spock.lang.Specification
+
+class SyntheticDataTest extends Specification {
+    def "the same seed and index always yield the same documents"() {
+        expect:
+        SyntheticData.beer(42, n) == SyntheticData.beer(42, n)
+        SyntheticData.customer(42, n) == SyntheticData.customer(42, n)
+
+        where:
+        n << [0, 1, 1_000_000]
+    }
+
+    def "a different seed yields a different dataset with the same ids"() {
+        given:
+        def first = (0..<20).collect { SyntheticData.beer(1, it) }
+        def second = (0..<20).collect { SyntheticData.beer(2, it) }
+
+        expect:
+        first*.id == second*.id
+        first*.upc != second*.upc
+    }
+
+    def "ids ascend with the index"() {
+        given:
+        def ids = (0..<100).collect { SyntheticData.customer(7, it).id }
+
+        expect:
+        ids == ids.toSorted()
+        ids.toSet().size() == 100
+    }
+}
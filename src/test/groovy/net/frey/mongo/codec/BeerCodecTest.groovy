@@ -0,0 +1,127 @@
+package net.frey.mongo.codec
+
+import java.time.LocalDateTime
+import net.frey.mongo.domain.Beer
+import org.bson.BsonDocument
+import org.bson.BsonDocumentReader
+import org.bson.BsonDocumentWriter
+import org.bson.BsonObjectId
+import org.bson.BsonString
+import org.bson.Document
+import org.bson.codecs.DecoderContext
+import org.bson.codecs.DocumentCodec
+import org.bson.codecs.EncoderContext
+import org.bson.types.ObjectId
+import spock.lang.Specification
+
+class BeerCodecTest extends Specification {
+    def codec = new BeerCodec()
+
+    def "decodes what it encodes"() {
+        given:
+        def beer = buildBeer()
+
+        expect:
+        decode(encode(beer)) == beer
+    }
+
+    def "leaves unset fields null"() {
+        given:
+        def beer = new Beer(id: new ObjectId().toHexString(), beerName: "Galaxy Cat")
+
+        when:
+        def encoded = encode(beer)
+
+        then:
+        encoded.keySet() == ["_id", "beerName"] as Set
+        decode(encoded) == beer
+    }
+
+    def "keeps ids that are not ObjectIds as strings"() {
+        given:
+        def beer = new Beer(id: "beer-1", beerName: "Galaxy Cat")
+
+        when:
+        def encoded = encode(beer)
+
+        then:
+        encoded.get("_id") == new BsonString("beer-1")
+        decode(encoded).id == "beer-1"
+    }
+
+    def "reads a price stored as a string before the move to Decimal128"() {
+        given:
+        def legacy = BsonDocument.parse('{"_id": {"$oid": "64a1f0c2e4b0a1b2c3d4e5f6"}, "price": "12.50"}')
+
+        expect:
+        decode(legacy).price == new BigDecimal("12.50")
+        DocumentToBeerConverter.INSTANCE.convert(Document.parse('{"price": "12.50"}')).price == new BigDecimal("12.50")
+    }
+
+    def "reads the same beer through the converter as through the codec"() {
+        given:
+        def beer = buildBeer()
+        def document = new DocumentCodec().decode(
+            new BsonDocumentReader(encode(beer)), DecoderContext.builder().build())
+
+        expect:
+        DocumentToBeerConverter.INSTANCE.convert(document) == beer
+    }
+
+    def "leaves fields missing from a projection null when converting"() {
+        when:
+        def beer = DocumentToBeerConverter.INSTANCE.convert(new Document("beerName", "Crank"))
+
+        then:
+        beer == new Beer(beerName: "Crank")
+    }
+
+    def "generates an id only when there is none"() {
+        given:
+        def unsaved = new Beer(beerName: "Crank")
+        def saved = new Beer(id: "beer-1", beerName: "Crank")
+
+        when:
+        codec.generateIdIfAbsentFromDocument(unsaved)
+        codec.generateIdIfAbsentFromDocument(saved)
+
+        then:
+        ObjectId.isValid(unsaved.id)
+        saved.id == "beer-1"
+        codec.documentHasId(unsaved)
+    }
+
+    def "reports the id as it is stored"() {
+        given:
+        def id = new ObjectId()
+
+        expect:
+        codec.getDocumentId(new Beer(id: id.toHexString())) == new BsonObjectId(id)
+        codec.getDocumentId(new Beer(id: "beer-1")) == new BsonString("beer-1")
+        !codec.documentHasId(new Beer())
+    }
+
+    BsonDocument encode(Beer beer) {
+        def document = new BsonDocument()
+        codec.encode(new BsonDocumentWriter(document), beer, EncoderContext.builder().build())
+        document
+    }
+
+    Beer decode(BsonDocument document) {
+        codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build())
+    }
+
+    static def buildBeer() {
+        Beer.builder()
+            .id(new ObjectId().toHexString())
+            .beerName("Galaxy Cat")
+            .beerStyle("Pale Ale")
+            .upc("12356")
+            .quantityOnHand(122)
+            .price(new BigDecimal("12.99"))
+            .version(3L)
+            .createdDate(LocalDateTime.of(2023, 5, 1, 12, 30, 15, 123_000_000))
+            .lastModifiedDate(LocalDateTime.of(2023, 5, 2, 8, 0, 0, 456_000_000))
+            .build()
+    }
+}
@@ -0,0 +1,100 @@
+package net.frey.mongo.codec
+
+import java.time.LocalDateTime
+import net.frey.mongo.domain.Customer
+import org.bson.BsonDocument
+import org.bson.BsonDocumentReader
+import org.bson.BsonDocumentWriter
+import org.bson.BsonObjectId
+import org.bson.BsonString
+import org.bson.Document
+import org.bson.codecs.DecoderContext
+import org.bson.codecs.DocumentCodec
+import org.bson.codecs.EncoderContext
+import org.bson.types.ObjectId
+import spock.lang.Specification
+
+class CustomerCodecTest extends Specification {
+    def codec = new CustomerCodec()
+
+    def "decodes what it encodes"() {
+        given:
+        def customer = buildCustomer()
+
+        expect:
+        decode(encode(customer)) == customer
+    }
+
+    def "leaves unset fields null"() {
+        given:
+        def customer = new Customer(id: new ObjectId().toHexString(), customerName: "Joan Rivers")
+
+        when:
+        def encoded = encode(customer)
+
+        then:
+        encoded.keySet() == ["_id", "customerName"] as Set
+        decode(encoded) == customer
+    }
+
+    def "reads the same customer through the converter as through the codec"() {
+        given:
+        def customer = buildCustomer()
+        def document = new DocumentCodec().decode(
+            new BsonDocumentReader(encode(customer)), DecoderContext.builder().build())
+
+        expect:
+        DocumentToCustomerConverter.INSTANCE.convert(document) == customer
+    }
+
+    def "leaves fields missing from a projection null when converting"() {
+        expect:
+        DocumentToCustomerConverter.INSTANCE.convert(new Document("customerName", "Bobby Tables")) ==
+            new Customer(customerName: "Bobby Tables")
+    }
+
+    def "generates an id only when there is none"() {
+        given:
+        def unsaved = new Customer(customerName: "Joan Rivers")
+        def saved = new Customer(id: "customer-1", customerName: "Joan Rivers")
+
+        when:
+        codec.generateIdIfAbsentFromDocument(unsaved)
+        codec.generateIdIfAbsentFromDocument(saved)
+
+        then:
+        ObjectId.isValid(unsaved.id)
+        saved.id == "customer-1"
+    }
+
+    def "reports the id as it is stored"() {
+        given:
+        def id = new ObjectId()
+
+        expect:
+        codec.getDocumentId(new Customer(id: id.toHexString())) == new BsonObjectId(id)
+        codec.getDocumentId(new Customer(id: "customer-1")) == new BsonString("customer-1")
+        codec.documentHasId(new Customer(id: "customer-1"))
+        !codec.documentHasId(new Customer())
+    }
+
+    BsonDocument encode(Customer customer) {
+        def document = new BsonDocument()
+        codec.encode(new BsonDocumentWriter(document), customer, EncoderContext.builder().build())
+        document
+    }
+
+    Customer decode(BsonDocument document) {
+        codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build())
+    }
+
+    static def buildCustomer() {
+        Customer.builder()
+            .id(new ObjectId().toHexString())
+            .customerName("Joan Rivers")
+            .version(2L)
+            .createdDate(LocalDateTime.of(2023, 5, 1, 12, 30, 15, 123_000_000))
+            .lastModifiedDate(LocalDateTime.of(2023, 5, 2, 8, 0, 0, 456_000_000))
+            .build()
+    }
+}
@@ -0,0 +1,89 @@
+package net.frey.mongo.config
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import java.time.Duration
+import org.springframework.http.HttpStatus
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest
+import org.springframework.mock.web.server.MockServerWebExchange
+import org.springframework.web.server.WebFilterChain
+import reactor.core.Disposable
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+class AdmissionControlFilterTest extends Specification {
+    static final WebFilterChain COMPLETES = { exchange -> Mono.empty() }
+    static final WebFilterChain HANGS = { exchange -> Mono.never() }
+
+    def registry = new SimpleMeterRegistry()
+    Disposable inFlight
+
+    def cleanup() {
+        inFlight?.dispose()
+    }
+
+    def "answers 503 once the concurrency limit is in use"() {
+        given:
+        def filter = filter(new AdmissionProperties.Limits(1, 1, 1, 0, 0))
+        inFlight = filter.filter(get("/api/v3/beer"), HANGS).subscribe()
+        def rejected = get("/api/v3/beer")
+
+        when:
+        filter.filter(rejected, COMPLETES).block()
+
+        then:
+        rejected.response.statusCode == HttpStatus.SERVICE_UNAVAILABLE
+        rejected.response.headers.getFirst("Retry-After") == "1"
+        registry.get("admission.rejected").tags("class", "read", "reason", "limit").counter().count() == 1
+    }
+
+    def "admits the next request once a slot is released"() {
+        given:
+        def filter = filter(new AdmissionProperties.Limits(1, 1, 1, 0, 0))
+        filter.filter(get("/api/v3/beer"), COMPLETES).block()
+        def admitted = false
+
+        when:
+        filter.filter(get("/api/v3/beer"), { exchange -> admitted = true; Mono.empty() } as WebFilterChain).block()
+
+        then:
+        admitted
+    }
+
+    def "answers 429 once a client has used up its burst"() {
+        given:
+        def filter = filter(new AdmissionProperties.Limits(10, 1, 10, 1, 1))
+        filter.filter(get("/api/v3/beer"), COMPLETES).block()
+        def throttled = get("/api/v3/beer")
+
+        when:
+        filter.filter(throttled, COMPLETES).block()
+
+        then:
+        throttled.response.statusCode == HttpStatus.TOO_MANY_REQUESTS
+        throttled.response.headers.getFirst("Retry-After") == "1"
+        registry.get("admission.rejected").tags("class", "read", "reason", "rate").counter().count() == 1
+    }
+
+    def "leaves requests outside the api alone"() {
+        given:
+        def filter = filter(new AdmissionProperties.Limits(1, 1, 1, 0, 0))
+        inFlight = filter.filter(get("/api/v3/beer"), HANGS).subscribe()
+        def admitted = false
+
+        when:
+        filter.filter(get("/actuator/health"), { exchange -> admitted = true; Mono.empty() } as WebFilterChain).block()
+
+        then:
+        admitted
+    }
+
+    def filter(AdmissionProperties.Limits limits) {
+        new AdmissionControlFilter(
+            new AdmissionProperties(true, Duration.ofMillis(250), 0.9, Duration.ofSeconds(1), 100, limits, limits),
+            registry)
+    }
+
+    static def get(String path) {
+        MockServerWebExchange.from(MockServerHttpRequest.get(path))
+    }
+}
@@ -0,0 +1,89 @@
+package net.frey.mongo.config
+
+import spock.lang.Specification
+
+class AimdLimiterTest extends Specification {
+    static final long TARGET_NANOS = 1_000_000
+
+    def limiter = new AimdLimiter(4, 2, 5, TARGET_NANOS, 0.5)
+
+    def "rejects once the limit is in use"() {
+        expect:
+        (1..4).every { limiter.tryAcquire() }
+        !limiter.tryAcquire()
+        limiter.inFlight() == 4
+    }
+
+    def "grows by one for a fast request while at least half the limit is in use"() {
+        given:
+        limiter.tryAcquire()
+        limiter.tryAcquire()
+
+        when:
+        limiter.onSuccess(TARGET_NANOS)
+
+        then:
+        limiter.limit() == 5
+        limiter.inFlight() == 1
+    }
+
+    def "does not grow while most of the limit is idle"() {
+        given:
+        limiter.tryAcquire()
+
+        when:
+        limiter.onSuccess(TARGET_NANOS)
+
+        then:
+        limiter.limit() == 4
+    }
+
+    def "never grows past the maximum"() {
+        given:
+        (1..4).each { limiter.tryAcquire() }
+
+        when:
+        limiter.onSuccess(0)
+        limiter.tryAcquire()
+        limiter.onSuccess(0)
+
+        then:
+        limiter.limit() == 5
+    }
+
+    def "backs off for a slow request"() {
+        given:
+        limiter.tryAcquire()
+
+        when:
+        limiter.onSuccess(TARGET_NANOS + 1)
+
+        then:
+        limiter.limit() == 2
+        limiter.inFlight() == 0
+    }
+
+    def "backs off for a failed request but never below the minimum"() {
+        when:
+        2.times {
+            limiter.tryAcquire()
+            limiter.onFailure()
+        }
+
+        then:
+        limiter.limit() == 2
+        limiter.inFlight() == 0
+    }
+
+    def "releases an ignored request without changing the limit"() {
+        given:
+        limiter.tryAcquire()
+
+        when:
+        limiter.onIgnore()
+
+        then:
+        limiter.limit() == 4
+        limiter.inFlight() == 0
+    }
+}
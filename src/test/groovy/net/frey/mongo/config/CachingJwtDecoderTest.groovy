@@ -0,0 +1,99 @@
+package net.frey.mongo.config
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import java.time.Duration
+import java.time.Instant
+import org.springframework.security.oauth2.jwt.BadJwtException
+import org.springframework.security.oauth2.jwt.Jwt
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+class CachingJwtDecoderTest extends Specification {
+    ReactiveJwtDecoder delegate = Mock()
+
+    def "decodes a token once while it is cached"() {
+        given:
+        def decoder = decoder(Duration.ofMinutes(5))
+        def jwt = buildJwt(Instant.now().plusSeconds(600))
+
+        when:
+        def first = decoder.decode("token").block()
+        def second = decoder.decode("token").block()
+
+        then:
+        1 * delegate.decode("token") >> Mono.just(jwt)
+        first.is(jwt)
+        second.is(jwt)
+    }
+
+    def "decodes a token again once its exp claim has passed"() {
+        given:
+        def decoder = decoder(Duration.ofMinutes(5))
+
+        when:
+        decoder.decode("token").block()
+        Thread.sleep(300)
+        decoder.decode("token").block()
+
+        then:
+        2 * delegate.decode("token") >> { Mono.just(buildJwt(Instant.now().plusMillis(100))) }
+    }
+
+    def "decodes a token again once the maximum ttl has passed"() {
+        given:
+        def decoder = decoder(Duration.ofMillis(100))
+
+        when:
+        decoder.decode("token").block()
+        Thread.sleep(300)
+        decoder.decode("token").block()
+
+        then:
+        2 * delegate.decode("token") >> { Mono.just(buildJwt(Instant.now().plusSeconds(600))) }
+    }
+
+    def "verifies an unseen token once for concurrent requests"() {
+        given:
+        def decoder = decoder(Duration.ofMinutes(5))
+        def jwt = buildJwt(Instant.now().plusSeconds(600))
+
+        when:
+        def decoded = Flux.range(0, 8)
+            .flatMap { decoder.decode("token") }
+            .collectList()
+            .block()
+
+        then:
+        1 * delegate.decode("token") >> Mono.just(jwt).delayElement(Duration.ofMillis(200))
+        decoded.size() == 8
+        decoded.every { it.is(jwt) }
+    }
+
+    def "does not cache a failed decode"() {
+        given:
+        def decoder = decoder(Duration.ofMinutes(5))
+        def jwt = buildJwt(Instant.now().plusSeconds(600))
+
+        when:
+        decoder.decode("token").onErrorResume { Mono.empty() }.block()
+        def decoded = decoder.decode("token").block()
+
+        then:
+        2 * delegate.decode("token") >>> [Mono.error(new BadJwtException("bad signature")), Mono.just(jwt)]
+        decoded.is(jwt)
+    }
+
+    def decoder(Duration maxTtl) {
+        new CachingJwtDecoder(delegate, new JwtCacheProperties(100, maxTtl), new SimpleMeterRegistry())
+    }
+
+    static def buildJwt(Instant expiresAt) {
+        Jwt.withTokenValue("token")
+            .header("alg", "RS256")
+            .subject("user")
+            .expiresAt(expiresAt)
+            .build()
+    }
+}
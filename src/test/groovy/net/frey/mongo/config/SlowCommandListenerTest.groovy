@@ -0,0 +1,83 @@
+package net.frey.mongo.config
+
+import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.Logger
+import ch.qos.logback.classic.spi.ILoggingEvent
+import ch.qos.logback.core.read.ListAppender
+import com.mongodb.RequestContext
+import com.mongodb.ServerAddress
+import com.mongodb.connection.ClusterId
+import com.mongodb.connection.ConnectionDescription
+import com.mongodb.connection.ServerId
+import com.mongodb.event.CommandFailedEvent
+import com.mongodb.event.CommandStartedEvent
+import com.mongodb.event.CommandSucceededEvent
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+import org.bson.BsonDocument
+import org.bson.BsonString
+import org.slf4j.LoggerFactory
+import spock.lang.Specification
+
+class SlowCommandListenerTest extends Specification {
+    static final RequestContext NO_CONTEXT = null
+    static final ConnectionDescription CONNECTION =
+        new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()))
+
+    def listener = new SlowCommandListener(Duration.ofMillis(100))
+    def appender = new ListAppender<ILoggingEvent>()
+    def logger = LoggerFactory.getLogger(SlowCommandListener) as Logger
+
+    def setup() {
+        appender.start()
+        logger.addAppender(appender)
+    }
+
+    def cleanup() {
+        logger.detachAppender(appender)
+    }
+
+    def "logs a command that takes at least the threshold"() {
+        when:
+        listener.commandStarted(started(1, "find", "beer"))
+        listener.commandSucceeded(succeeded(1, "find", 100))
+
+        then:
+        appender.list.size() == 1
+        appender.list[0].level == Level.WARN
+        appender.list[0].formattedMessage == "Slow Mongo command find on beers.beer took 100 ms (ok)"
+    }
+
+    def "ignores a command that finishes under the threshold"() {
+        when:
+        listener.commandStarted(started(2, "find", "beer"))
+        listener.commandSucceeded(succeeded(2, "find", 99))
+
+        then:
+        appender.list.isEmpty()
+        listener.inFlight.isEmpty()
+    }
+
+    def "logs a slow failure with its message"() {
+        when:
+        listener.commandStarted(started(3, "insert", "customer"))
+        listener.commandFailed(new CommandFailedEvent(
+            NO_CONTEXT, 3, CONNECTION, "insert", TimeUnit.MILLISECONDS.toNanos(250), new IllegalStateException("boom")))
+
+        then:
+        appender.list*.formattedMessage == ["Slow Mongo command insert on beers.customer took 250 ms (boom)"]
+        listener.inFlight.isEmpty()
+    }
+
+    static started(int requestId, String commandName, String collection) {
+        def command = new BsonDocument(commandName, new BsonString(collection))
+
+        new CommandStartedEvent(NO_CONTEXT, requestId, CONNECTION, "beers", commandName, command)
+    }
+
+    static succeeded(int requestId, String commandName, long elapsedMillis) {
+        def elapsed = TimeUnit.MILLISECONDS.toNanos(elapsedMillis)
+
+        new CommandSucceededEvent(NO_CONTEXT, requestId, CONNECTION, commandName, new BsonDocument(), elapsed)
+    }
+}
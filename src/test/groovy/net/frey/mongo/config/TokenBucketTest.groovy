@@ -0,0 +1,56 @@
+package net.frey.mongo.config
+
+import java.util.concurrent.TimeUnit
+import spock.lang.Specification
+
+class TokenBucketTest extends Specification {
+    def "allows a burst up to its capacity"() {
+        given:
+        def bucket = new TokenBucket(3, 1)
+
+        expect:
+        (1..3).every { bucket.tryConsume() == 0 }
+        bucket.tryConsume() > 0
+    }
+
+    def "reports the wait until the next token"() {
+        given:
+        def bucket = new TokenBucket(1, 10)
+        bucket.tryConsume()
+
+        when:
+        def waitNanos = bucket.tryConsume()
+
+        then:
+        waitNanos > 0
+        waitNanos <= TimeUnit.MILLISECONDS.toNanos(100)
+    }
+
+    def "refills at its rate"() {
+        given:
+        def bucket = new TokenBucket(1, 10)
+        bucket.tryConsume()
+
+        when:
+        Thread.sleep(150)
+
+        then:
+        bucket.tryConsume() == 0
+        bucket.tryConsume() > 0
+    }
+
+    def "never refills past its capacity"() {
+        given:
+        def bucket = new TokenBucket(2, 1000)
+        bucket.tryConsume()
+        bucket.tryConsume()
+
+        when:
+        Thread.sleep(50)
+
+        then:
+        bucket.tryConsume() == 0
+        bucket.tryConsume() == 0
+        bucket.tryConsume() > 0
+    }
+}
@@ -1,22 +1,32 @@
 package net.frey.mongo.endpoint
 
+import java.util.concurrent.TimeUnit
+import java.util.zip.GZIPInputStream
+import net.frey.mongo.bootstrap.BootstrapData
 import net.frey.mongo.model.BeerDTO
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.core.ParameterizedTypeReference
+import org.springframework.http.MediaType
+import org.springframework.http.codec.ServerSentEvent
+import org.springframework.test.context.ActiveProfiles
 import org.springframework.test.web.reactive.server.WebTestClient
 import org.springframework.web.util.UriComponentsBuilder
+import spock.lang.Requires
 import spock.lang.Specification
 import spock.lang.Stepwise
 
 import static net.frey.mongo.endpoint.BeerHandler.BEER_PATH
 import static org.hamcrest.Matchers.equalTo
+import static org.hamcrest.Matchers.startsWith
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login
 import static org.springframework.web.util.UriComponentsBuilder.fromPath
 import static reactor.core.publisher.Mono.just
 
 @Stepwise
 @SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
 @AutoConfigureWebTestClient
 class BeerEndpointTest extends Specification {
     @Autowired
@@ -123,6 +133,21 @@ class BeerEndpointTest extends Specification {
             .expectStatus().isBadRequest()
     }
 
+    def "create a new beer with a client supplied id"() {
+        given:
+        def beer = buildDto()
+        beer.id = getSavedTestBeer().id
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(BEER_PATH)
+            .body(just(beer), BeerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
     def "update a beer but there's an error"() {
         given:
         def beer = buildDto()
@@ -156,6 +181,404 @@ class BeerEndpointTest extends Specification {
             .expectStatus().isNotFound()
     }
 
+    def "list beers a page at a time"() {
+        given:
+        def firstPage = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BEER_PATH).queryParam("limit", 2).build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath('$.size()').isEqualTo(2)
+            .returnResult()
+        def cursor = firstPage.responseHeaders.getFirst("X-Next-Cursor")
+
+        expect:
+        cursor != null
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BEER_PATH).queryParam("limit", 2).queryParam("after", cursor).build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath('$[0].id').value { assert it > cursor }
+    }
+
+    def "list beers with an invalid cursor"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BEER_PATH).queryParam("after", "not-an-id").build().toUri())
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "stream beers as ndjson"() {
+        when:
+        def beers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(BEER_PATH)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(BeerDTO)
+            .responseBody
+            .collectList()
+            .block()
+
+        then:
+        !beers.isEmpty()
+        beers.every { it.id != null }
+    }
+
+    def "bulk create beers"() {
+        given:
+        def body = [
+            '{"beerName": "Bulk One", "beerStyle": "Lager", "upc": "1", "quantityOnHand": 1, "price": 1.99}',
+            '{"beerName": "", "beerStyle": "Lager"}',
+            '{"beerName": "Bulk Three", "beerStyle": "Lager", "upc": "3", "quantityOnHand": 3, "price": 3.99}'
+        ].join("\n")
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri("$BEER_PATH/bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.received').isEqualTo(3)
+            .jsonPath('$.inserted').isEqualTo(2)
+            .jsonPath('$.failed').isEqualTo(1)
+            .jsonPath('$.failures[0].index').isEqualTo(1)
+    }
+
+    def "bulk create beers with a malformed line"() {
+        given:
+        def body = [
+            '{"beerName": "Bulk Four", "beerStyle": "Lager", "upc": "4", "quantityOnHand": 4, "price": 4.99}',
+            '{"beerName": "Bulk Five", "beerStyle": ',
+            '{"beerName": "Bulk Six", "beerStyle": "Lager", "upc": "6", "quantityOnHand": 6, "price": 6.99}'
+        ].join("\n")
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(fromPath(BeerHandler.BULK_PATH).queryParam("batchSize", 1).build().toUri())
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.received').isEqualTo(3)
+            .jsonPath('$.inserted').isEqualTo(2)
+            .jsonPath('$.failed').isEqualTo(1)
+            .jsonPath('$.failures[0].index').isEqualTo(1)
+            .jsonPath('$.failures[0].message').value(startsWith("Malformed JSON"))
+    }
+
+    def "adjust inventory"() {
+        given:
+        def beer = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri("$BEER_PATH/$beer.id/inventory")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue([delta: 5])
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath('$.quantityOnHand').isEqualTo(beer.quantityOnHand + 5)
+    }
+
+    def "adjust inventory below zero"() {
+        given:
+        def beer = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri("$BEER_PATH/$beer.id/inventory")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue([delta: -(beer.quantityOnHand + 1)])
+            .exchange()
+            .expectStatus().isEqualTo(409)
+    }
+
+    def "get by id with a field projection"() {
+        given:
+        def beerDto = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH/$beerDto.id?fields=id,beerName")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.id').isEqualTo(beerDto.id)
+            .jsonPath('$.beerName').isEqualTo(beerDto.beerName)
+            .jsonPath('$.price').doesNotExist()
+    }
+
+    def "list beers with an unknown field"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH?fields=id,colour")
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "get beers by ids"() {
+        given:
+        def beerDto = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH?ids=$beerDto.id,000000000000000000000000")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.size()').isEqualTo(2)
+            .jsonPath('$[0].id').isEqualTo(beerDto.id)
+            .jsonPath('$[1]').doesNotExist()
+    }
+
+    def "get stats per style"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath("$BEER_PATH/stats").queryParam("style", "IPA").build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.size()').isEqualTo(1)
+            .jsonPath('$[0].beerStyle').isEqualTo("IPA")
+            .jsonPath('$[0].count').exists()
+            .jsonPath('$[0].maxPrice').exists()
+    }
+
+    def "get by id answers 304 when the etag still matches"() {
+        given:
+        def beerDto = getSavedTestBeer()
+        def eTag = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH/$beerDto.id")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists("Last-Modified")
+            .returnResult(BeerDTO)
+            .getResponseHeaders()
+            .getETag()
+
+        expect:
+        eTag == "\"$beerDto.version\""
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH/$beerDto.id")
+            .header("If-None-Match", eTag)
+            .exchange()
+            .expectStatus().isNotModified()
+    }
+
+    def "patch a beer with a stale if-match"() {
+        given:
+        def beerDto = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .patch().uri("$BEER_PATH/$beerDto.id")
+            .header("If-Match", "\"${beerDto.version - 1}\"")
+            .body(just(new BeerDTO(beerName: "Stale Write")), BeerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isEqualTo(412)
+
+        client
+            .mutateWith(mockOAuth2Login())
+            .patch().uri("$BEER_PATH/$beerDto.id")
+            .header("If-Match", "\"$beerDto.version\"")
+            .body(just(new BeerDTO(beerName: "Fresh Write")), BeerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isNoContent()
+            .expectHeader().valueEquals("ETag", "\"${beerDto.version + 1}\"")
+    }
+
+    def "get by id as cbor"() {
+        given:
+        def beerDto = getSavedTestBeer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$BEER_PATH/$beerDto.id")
+            .accept(MediaType.APPLICATION_CBOR)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+    }
+
+    def "search beers by name prefix ignoring case"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.SEARCH_PATH).queryParam("q", "cRa").build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.size()').isEqualTo(1)
+            .jsonPath('$[0].beerName').isEqualTo("Crank")
+    }
+
+    def "search beers by words"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.SEARCH_PATH).queryParam("q", "sunshine city").build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$[0].beerName').isEqualTo("Sunshine City")
+    }
+
+    def "search beers without a query"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.SEARCH_PATH).queryParam("q", " ").build().toUri())
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "export beers as ndjson"() {
+        when:
+        def beers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(BeerHandler.EXPORT_PATH)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(BeerDTO)
+            .responseBody
+            .collectList()
+            .block()
+
+        then:
+        !beers.isEmpty()
+        beers.every { it.id != null }
+    }
+
+    def "export beers as gzipped csv"() {
+        when:
+        def body = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.EXPORT_PATH).queryParam("format", "csv").build().toUri())
+            .header("Accept-Encoding", "gzip")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(new MediaType("text", "csv"))
+            .expectHeader().valueEquals("Content-Encoding", "gzip")
+            .expectBody(byte[])
+            .returnResult()
+            .responseBody
+        def lines = new GZIPInputStream(new ByteArrayInputStream(body)).getText("UTF-8").readLines()
+
+        then:
+        lines[0] == "id,beerName,beerStyle,upc,quantityOnHand,price,version,createdDate,lastModifiedDate"
+        lines.size() > 1
+    }
+
+    def "export beers with Accept-Encoding #acceptEncoding"() {
+        when:
+        def headers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.EXPORT_PATH).queryParam("format", "csv").build().toUri())
+            .header("Accept-Encoding", acceptEncoding)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(byte[])
+            .responseHeaders
+
+        then:
+        headers.getFirst("Content-Encoding") == (gzipped ? "gzip" : null)
+
+        where:
+        acceptEncoding   | gzipped
+        "gzip;q=0.0"     | false
+        "gzip;q=0.00"    | false
+        "gzip; q=0"      | false
+        "gzip;q=abc"     | false
+        "br, gzip;q=0.5" | true
+        "*"              | true
+        "*;q=0"          | false
+        "gzip;q=0, *"    | false
+        "identity"       | false
+    }
+
+    def "export beers in an unknown format"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.EXPORT_PATH).queryParam("format", "xml").build().toUri())
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "stream changes with an invalid resume token"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.CHANGES_PATH).queryParam("resumeAfter", "not-a-token").build().toUri())
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    @Requires({ env.MONGO_REPLICA_SET })
+    def "stream changes for one style"() {
+        given:
+        final def STYLE = "CHANGES"
+        def testDto = buildDto()
+        testDto.beerStyle = STYLE
+
+        def changes = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(BeerHandler.CHANGES_PATH).queryParam("style", STYLE).build().toUri())
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map>>() {})
+            .getResponseBody()
+            .next()
+            .toFuture()
+
+        when:
+        sleep(500)
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(BEER_PATH)
+            .body(just(buildDto()), BeerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(BEER_PATH)
+            .body(just(testDto), BeerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+        def event = changes.get(10, TimeUnit.SECONDS)
+
+        then:
+        event.event() == "insert"
+        event.id() != null
+        event.data().document.beerStyle == STYLE
+    }
+
     def getSavedTestBeer() {
         client
             .mutateWith(mockOAuth2Login())
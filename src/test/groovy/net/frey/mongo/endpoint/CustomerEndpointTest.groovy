@@ -1,20 +1,31 @@
 package net.frey.mongo.endpoint
 
+import java.util.zip.GZIPInputStream
+import net.frey.mongo.bootstrap.BootstrapData
 import net.frey.mongo.model.CustomerDTO
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.http.MediaType
+import org.springframework.test.context.ActiveProfiles
 import org.springframework.test.web.reactive.server.WebTestClient
 import spock.lang.Specification
 import spock.lang.Stepwise
 
+import static org.hamcrest.Matchers.containsInAnyOrder
 import static org.hamcrest.Matchers.equalTo
+import static org.hamcrest.Matchers.everyItem
+import static org.hamcrest.Matchers.greaterThan
+import static org.hamcrest.Matchers.hasItem
+import static org.hamcrest.Matchers.startsWith
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockOAuth2Login
 import static org.springframework.web.util.UriComponentsBuilder.fromPath
 import static reactor.core.publisher.Mono.just
 import static net.frey.mongo.endpoint.CustomerHandler.CUSTOMER_PATH
 
 @Stepwise
 @SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
 @AutoConfigureWebTestClient
 class CustomerEndpointTest extends Specification {
     @Autowired
@@ -22,7 +33,9 @@ class CustomerEndpointTest extends Specification {
 
     def "list customers"() {
         expect:
-        client.get().uri(CUSTOMER_PATH)
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(CUSTOMER_PATH)
             .exchange()
             .expectStatus().isOk()
             .expectHeader().valueEquals("Content-Type", "application/json")
@@ -35,13 +48,17 @@ class CustomerEndpointTest extends Specification {
         def testDto = buildDto()
         testDto.customerName = NAME
 
-        client.post().uri(CUSTOMER_PATH)
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(CUSTOMER_PATH)
             .body(just(testDto), CustomerDTO)
             .header("Content-Type", "application/json")
             .exchange()
 
         expect:
-        client.get().uri(fromPath(CUSTOMER_PATH).queryParam("name", NAME).build().toUri())
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CUSTOMER_PATH).queryParam("name", NAME).build().toUri())
             .exchange()
             .expectStatus().isOk()
             .expectHeader().valueEquals("Content-Type", "application/json")
@@ -53,7 +70,9 @@ class CustomerEndpointTest extends Specification {
         def customerDto = getSavedTestCustomer()
 
         expect:
-        client.get().uri("$CUSTOMER_PATH/$customerDto.id")
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH/$customerDto.id")
             .exchange()
             .expectStatus().isOk()
             .expectHeader().valueEquals("Content-Type", "application/json")
@@ -62,7 +81,9 @@ class CustomerEndpointTest extends Specification {
 
     def "create a new customer"() {
         expect:
-        client.post().uri(CUSTOMER_PATH)
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(CUSTOMER_PATH)
             .body(just(buildDto()), CustomerDTO)
             .header("Content-Type", "application/json")
             .exchange()
@@ -75,7 +96,9 @@ class CustomerEndpointTest extends Specification {
         def dto = getSavedTestCustomer()
 
         expect:
-        client.put().uri("$CUSTOMER_PATH/$dto.id")
+        client
+            .mutateWith(mockOAuth2Login())
+            .put().uri("$CUSTOMER_PATH/$dto.id")
             .body(just(buildDto()), CustomerDTO)
             .exchange()
             .expectStatus().isNoContent()
@@ -86,7 +109,9 @@ class CustomerEndpointTest extends Specification {
         def dto = getSavedTestCustomer()
 
         expect:
-        client.patch().uri("$CUSTOMER_PATH/$dto.id")
+        client
+            .mutateWith(mockOAuth2Login())
+            .patch().uri("$CUSTOMER_PATH/$dto.id")
             .body(just(buildDto()), CustomerDTO)
             .exchange()
             .expectStatus().isNoContent()
@@ -98,7 +123,9 @@ class CustomerEndpointTest extends Specification {
         customer.customerName = ""
 
         expect:
-        client.post().uri(CUSTOMER_PATH)
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(CUSTOMER_PATH)
             .body(just(customer), CustomerDTO)
             .header("Content-Type", "application/json")
             .exchange()
@@ -111,7 +138,9 @@ class CustomerEndpointTest extends Specification {
         customer.customerName = ""
 
         expect:
-        client.put().uri("$CUSTOMER_PATH/1")
+        client
+            .mutateWith(mockOAuth2Login())
+            .put().uri("$CUSTOMER_PATH/1")
             .body(just(customer), CustomerDTO)
             .exchange()
             .expectStatus().isBadRequest()
@@ -119,19 +148,297 @@ class CustomerEndpointTest extends Specification {
 
     def "get by id but there's an error"() {
         expect:
-        client.get().uri("$CUSTOMER_PATH/999")
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH/999")
             .exchange()
             .expectStatus().isNotFound()
     }
 
     def "update a customer that doesn't exist"() {
         expect:
-        client.put().uri("$CUSTOMER_PATH/999")
+        client
+            .mutateWith(mockOAuth2Login())
+            .put().uri("$CUSTOMER_PATH/999")
             .body(just(buildDto()), CustomerDTO)
             .exchange()
             .expectStatus().isNotFound()
     }
 
+    def "create a new customer with a client supplied id"() {
+        given:
+        def customer = buildDto()
+        customer.id = getSavedTestCustomer().id
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(CUSTOMER_PATH)
+            .body(just(customer), CustomerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "get by id answers 304 when the etag still matches"() {
+        given:
+        def customerDto = getSavedTestCustomer()
+        def eTag = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH/$customerDto.id")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().exists("Last-Modified")
+            .returnResult(CustomerDTO)
+            .getResponseHeaders()
+            .getETag()
+
+        expect:
+        eTag == "\"$customerDto.version\""
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH/$customerDto.id")
+            .header("If-None-Match", eTag)
+            .exchange()
+            .expectStatus().isNotModified()
+    }
+
+    def "patch a customer with a stale if-match"() {
+        given:
+        def customerDto = getSavedTestCustomer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .patch().uri("$CUSTOMER_PATH/$customerDto.id")
+            .header("If-Match", "\"${customerDto.version - 1}\"")
+            .body(just(new CustomerDTO(customerName: "Stale Write")), CustomerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isEqualTo(412)
+
+        client
+            .mutateWith(mockOAuth2Login())
+            .patch().uri("$CUSTOMER_PATH/$customerDto.id")
+            .header("If-Match", "\"$customerDto.version\"")
+            .body(just(new CustomerDTO(customerName: "Fresh Write")), CustomerDTO)
+            .header("Content-Type", "application/json")
+            .exchange()
+            .expectStatus().isNoContent()
+            .expectHeader().valueEquals("ETag", "\"${customerDto.version + 1}\"")
+    }
+
+    def "list customers a page at a time"() {
+        given:
+        def firstPage = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CUSTOMER_PATH).queryParam("limit", 1).build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath('$.size()').isEqualTo(1)
+            .returnResult()
+        def cursor = firstPage.responseHeaders.getFirst("X-Next-Cursor")
+
+        expect:
+        cursor != null
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CUSTOMER_PATH).queryParam("limit", 1).queryParam("after", cursor).build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath('$[0].id').value { assert it > cursor }
+    }
+
+    def "list customers with an invalid limit"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CUSTOMER_PATH).queryParam("limit", 0).build().toUri())
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "stream customers as ndjson"() {
+        when:
+        def customers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(CUSTOMER_PATH)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(CustomerDTO)
+            .responseBody
+            .collectList()
+            .block()
+
+        then:
+        customers.size() > 1
+        customers.every { it.id != null }
+    }
+
+    def "stream customers a page at a time"() {
+        when:
+        def customers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CUSTOMER_PATH).queryParam("limit", 1).build().toUri())
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .returnResult(CustomerDTO)
+            .responseBody
+            .collectList()
+            .block()
+
+        then:
+        customers.size() == 1
+    }
+
+    def "get by id with a field projection"() {
+        given:
+        def customerDto = getSavedTestCustomer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH/$customerDto.id?fields=id,customerName")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.id').isEqualTo(customerDto.id)
+            .jsonPath('$.customerName').isEqualTo(customerDto.customerName)
+            .jsonPath('$.version').doesNotExist()
+    }
+
+    def "list customers with an unknown field"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH?fields=id,email")
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "get customers by ids"() {
+        given:
+        def customerDto = getSavedTestCustomer()
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH?ids=000000000000000000000000,$customerDto.id")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.size()').isEqualTo(2)
+            .jsonPath('$[0]').doesNotExist()
+            .jsonPath('$[1].id').isEqualTo(customerDto.id)
+    }
+
+    def "get customers by an empty list of ids"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri("$CUSTOMER_PATH?ids=,")
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "export customers as ndjson"() {
+        when:
+        def customers = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(CustomerHandler.EXPORT_PATH)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(CustomerDTO)
+            .responseBody
+            .collectList()
+            .block()
+
+        then:
+        !customers.isEmpty()
+        customers.every { it.id != null && it.customerName != null }
+    }
+
+    def "export customers as gzipped csv"() {
+        when:
+        def body = client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CustomerHandler.EXPORT_PATH).queryParam("format", "csv").build().toUri())
+            .header("Accept-Encoding", "gzip")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(new MediaType("text", "csv"))
+            .expectHeader().valueEquals("Content-Encoding", "gzip")
+            .expectBody(byte[])
+            .returnResult()
+            .responseBody
+        def lines = new GZIPInputStream(new ByteArrayInputStream(body)).getText("UTF-8").readLines()
+
+        then:
+        lines[0] == "id,customerName,version,createdDate,lastModifiedDate"
+        lines.size() > 1
+    }
+
+    def "search customers by name prefix ignoring case"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CustomerHandler.SEARCH_PATH).queryParam("q", "bOB").build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$[*].customerName').value(everyItem(equalTo("Bobby Tables")))
+            .jsonPath('$.size()').value(greaterThan(0))
+    }
+
+    def "search customers by words"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CustomerHandler.SEARCH_PATH).queryParam("q", "rivers joan").build().toUri())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$[0].customerName').isEqualTo("Joan Rivers")
+    }
+
+    def "search customers with a query that is too long"() {
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(fromPath(CustomerHandler.SEARCH_PATH).queryParam("q", "x" * 101).build().toUri())
+            .exchange()
+            .expectStatus().isBadRequest()
+    }
+
+    def "bulk create customers"() {
+        given:
+        def body = [
+            '{"customerName": "Bulk One"}',
+            '{"customerName": ""}',
+            '{"customerName": ',
+            '{"customerName": "Bulk Four"}'
+        ].join("\n")
+
+        expect:
+        client
+            .mutateWith(mockOAuth2Login())
+            .post().uri(fromPath(CustomerHandler.BULK_PATH).queryParam("batchSize", 1).build().toUri())
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath('$.received').isEqualTo(4)
+            .jsonPath('$.inserted').isEqualTo(2)
+            .jsonPath('$.failed').isEqualTo(2)
+            .jsonPath('$.failures[*].index').value(containsInAnyOrder(1, 2))
+            .jsonPath('$.failures[*].message').value(hasItem(startsWith("Malformed JSON")))
+    }
+
     def buildDto() {
         CustomerDTO.builder()
             .customerName("Joan Rivers")
@@ -139,6 +446,8 @@ class CustomerEndpointTest extends Specification {
     }
 
     def getSavedTestCustomer() {
-        client.get().uri(CUSTOMER_PATH).exchange().returnResult(CustomerDTO).getResponseBody().blockFirst()
+        client
+            .mutateWith(mockOAuth2Login())
+            .get().uri(CUSTOMER_PATH).exchange().returnResult(CustomerDTO).getResponseBody().blockFirst()
     }
 }
@@ -0,0 +1,46 @@
+package net.frey.mongo.endpoint
+
+import org.springframework.mock.web.reactive.function.server.MockServerRequest
+import org.springframework.web.server.ServerWebInputException
+import spock.lang.Specification
+
+class QueryParamsTest extends Specification {
+    def "parses #value as #expected"() {
+        expect:
+        QueryParams.positiveInt(request(value), "limit", 100, 1000) == expected
+
+        where:
+        value  | expected
+        null   | 100
+        "1"    | 1
+        "250"  | 250
+        "1000" | 1000
+        "5000" | 1000
+    }
+
+    def "rejects #value"() {
+        when:
+        QueryParams.positiveInt(request(value), "limit", 100, 1000)
+
+        then:
+        def e = thrown(ServerWebInputException)
+        e.reason == reason
+
+        where:
+        value | reason
+        "0"   | "limit must be positive"
+        "-3"  | "limit must be positive"
+        "abc" | "Invalid limit: abc"
+        ""    | "Invalid limit: "
+    }
+
+    static request(String limit) {
+        def builder = MockServerRequest.builder()
+
+        if (limit != null) {
+            builder.queryParam("limit", limit)
+        }
+
+        builder.build()
+    }
+}
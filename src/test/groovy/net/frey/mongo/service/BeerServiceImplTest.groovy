@@ -1,9 +1,12 @@
 package net.frey.mongo.service
 
+import net.frey.mongo.bootstrap.BootstrapData
 import net.frey.mongo.domain.Beer
 import net.frey.mongo.mapper.BeerMapper
+import net.frey.mongo.model.BeerDTO
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.test.context.ActiveProfiles
 import reactor.test.StepVerifier
 import spock.lang.Specification
 import reactor.core.publisher.Mono
@@ -11,6 +14,7 @@ import reactor.core.publisher.Mono
 import static reactor.core.publisher.Mono.just
 
 @SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
 class BeerServiceImplTest extends Specification {
     @Autowired
     BeerService beerService
@@ -18,6 +22,9 @@ class BeerServiceImplTest extends Specification {
     @Autowired
     BeerMapper beerMapper
 
+    @Autowired
+    ReadThroughCache<BeerDTO> cache
+
     def beerDto
 
     def setup() {
@@ -47,6 +54,64 @@ class BeerServiceImplTest extends Specification {
             .verifyComplete()
     }
 
+    def "patch beer only sets the fields that are present"() {
+        given:
+        def saved = getSavedBeer()
+        def patch = new BeerDTO(quantityOnHand: 99)
+
+        when:
+        def patched = beerService.patchBeer(saved.id, patch)
+
+        then:
+        StepVerifier.create(patched)
+            .expectNextMatches { it.quantityOnHand == 99 && it.beerName == saved.beerName }
+            .verifyComplete()
+    }
+
+    def "get by id after a patch returns the patched beer"() {
+        given:
+        def saved = getSavedBeer()
+        beerService.getById(saved.id).block()
+
+        when:
+        beerService.patchBeer(saved.id, new BeerDTO(beerName: "Patched Dust")).block()
+
+        then:
+        StepVerifier.create(beerService.getById(saved.id))
+            .expectNextMatches { it.beerName == "Patched Dust" && it.version == saved.version + 1 }
+            .verifyComplete()
+    }
+
+    def "find by name after a rename forgets only the old and new names"() {
+        given:
+        def oldName = "Renamed From ${UUID.randomUUID()}"
+        def newName = "Renamed To ${UUID.randomUUID()}"
+        def unrelated = getSavedBeer()
+        def beer = buildTestDto()
+        beer.beerName = oldName
+        def saved = beerService.saveBeer(just(beer)).block()
+        beerService.findFirstByBeerName(oldName).block()
+        beerService.findFirstByBeerName(unrelated.beerName).block()
+        def hits = cache.stats().hitCount()
+
+        when:
+        beerService.patchBeer(saved.id, new BeerDTO(beerName: newName)).block()
+
+        then:
+        StepVerifier.create(beerService.findFirstByBeerName(oldName)).verifyComplete()
+        StepVerifier.create(beerService.findFirstByBeerName(newName))
+            .expectNextMatches { it.id == saved.id }
+            .verifyComplete()
+        beerService.findFirstByBeerName(unrelated.beerName).block() != null
+        cache.stats().hitCount() == hits + 1
+    }
+
+    def "patch a beer that doesn't exist"() {
+        expect:
+        StepVerifier.create(beerService.patchBeer("999", new BeerDTO(beerName: "Missing")))
+            .verifyComplete()
+    }
+
     def getSavedBeer() {
         beerService.saveBeer(just(buildTestDto())).block()
     }
@@ -0,0 +1,40 @@
+package net.frey.mongo.service
+
+import com.mongodb.MongoCommandException
+import com.mongodb.MongoSocketReadException
+import com.mongodb.ServerAddress
+import org.bson.BsonArray
+import org.bson.BsonDocument
+import org.bson.BsonInt32
+import org.bson.BsonString
+import org.springframework.dao.DataAccessResourceFailureException
+import org.springframework.dao.InvalidDataAccessApiUsageException
+import spock.lang.Specification
+
+class ChangeFeedTest extends Specification {
+    def "retries only failures that reopening the cursor can cure"() {
+        expect:
+        ChangeFeed.isResumable(error) == resumable
+
+        where:
+        error                                                                    || resumable
+        new MongoSocketReadException("reset", new ServerAddress())               || true
+        new DataAccessResourceFailureException("translated",
+            new MongoSocketReadException("reset", new ServerAddress()))          || true
+        commandError(280, "ResumableChangeStreamError")                          || true
+        commandError(286, "ResumableChangeStreamError")                          || false
+        commandError(40573)                                                      || false
+        new InvalidDataAccessApiUsageException("translated", commandError(115))  || false
+        commandError(11601, "NonResumableChangeStreamError")                     || false
+        new IllegalStateException("not from the driver")                         || false
+    }
+
+    static MongoCommandException commandError(int code, String... labels) {
+        def response = new BsonDocument("ok", new BsonInt32(0))
+            .append("code", new BsonInt32(code))
+            .append("errmsg", new BsonString("failed"))
+            .append("errorLabels", new BsonArray(labels.collect { new BsonString(it) }))
+
+        new MongoCommandException(response, new ServerAddress())
+    }
+}
@@ -1,15 +1,18 @@
 package net.frey.mongo.service
 
+import net.frey.mongo.bootstrap.BootstrapData
 import net.frey.mongo.domain.Customer
 import net.frey.mongo.mapper.CustomerMapper
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.test.context.ActiveProfiles
 import reactor.test.StepVerifier
 import spock.lang.Specification
 
 import static reactor.core.publisher.Mono.just
 
 @SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
 class CustomerServiceImplTest extends Specification {
     @Autowired
     CustomerService customerService
@@ -0,0 +1,89 @@
+package net.frey.mongo.service
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+class ReadThroughCacheTest extends Specification {
+    def cache = new ReadThroughCache<String>(100, Duration.ofMinutes(5))
+    def loads = new AtomicInteger()
+
+    def "answers a repeated get from the cache"() {
+        when:
+        def first = cache.get("id:1", loader("value")).block()
+        def second = cache.get("id:1", loader("other")).block()
+
+        then:
+        first == "value"
+        second == "value"
+        loads.get() == 1
+        cache.stats().hitCount() == 1
+    }
+
+    def "loads again after a key is invalidated"() {
+        given:
+        cache.get("id:1", loader("before")).block()
+
+        when:
+        cache.invalidate("id:1")
+
+        then:
+        cache.get("id:1", loader("after")).block() == "after"
+        loads.get() == 2
+    }
+
+    def "peeks at a loaded value without loading it"() {
+        given:
+        cache.get("id:1", loader("value")).block()
+
+        expect:
+        cache.getIfLoaded("id:1") == "value"
+        cache.getIfLoaded("id:2") == null
+        loads.get() == 1
+        cache.stats().requestCount() == 1
+    }
+
+    def "puts a value only where nothing is cached"() {
+        given:
+        cache.get("id:1", loader("loaded")).block()
+
+        when:
+        cache.putIfAbsent("id:1", "put")
+        cache.putIfAbsent("id:2", "put")
+
+        then:
+        cache.get("id:1", loader("other")).block() == "loaded"
+        cache.get("id:2", loader("other")).block() == "put"
+        loads.get() == 1
+    }
+
+    def "does not cache an empty result"() {
+        when:
+        cache.get("id:1", { -> loads.incrementAndGet(); Mono.empty() }).block()
+        def value = cache.get("id:1", loader("value")).block()
+
+        then:
+        value == "value"
+        loads.get() == 2
+    }
+
+    def "runs the loader on every get when the maximum size is zero"() {
+        given:
+        def disabled = new ReadThroughCache<String>(0, Duration.ofMinutes(5))
+
+        when:
+        def first = disabled.get("id:1", loader("first")).block()
+        def second = disabled.get("id:1", loader("second")).block()
+
+        then:
+        first == "first"
+        second == "second"
+        loads.get() == 2
+        disabled.size() == 0
+    }
+
+    def loader(String value) {
+        return { -> Mono.fromSupplier { loads.incrementAndGet(); value } }
+    }
+}
@@ -0,0 +1,102 @@
+package net.frey.mongo.service
+
+import java.util.concurrent.atomic.AtomicInteger
+import reactor.core.publisher.Mono
+import reactor.core.publisher.Sinks
+import spock.lang.Specification
+
+class SingleFlightTest extends Specification {
+    def singleFlight = new SingleFlight()
+    def subscriptions = new AtomicInteger()
+    def cancellations = new AtomicInteger()
+    def upstream = Sinks.one()
+
+    def "concurrent callers share one upstream subscription"() {
+        when:
+        def results = (1..5).collect { singleFlight.execute("key", this::query).toFuture() }
+        upstream.tryEmitValue("value")
+
+        then:
+        results*.get() == ["value"] * 5
+        subscriptions.get() == 1
+        singleFlight.coalesced() == 4
+    }
+
+    def "a caller arriving after the load completed runs a fresh query"() {
+        given:
+        upstream.tryEmitValue("value")
+        singleFlight.execute("key", this::query).block()
+
+        when:
+        def value = singleFlight.execute("key", this::query).block()
+
+        then:
+        value == "value"
+        subscriptions.get() == 2
+        singleFlight.coalesced() == 0
+    }
+
+    def "an error reaches every waiting caller but is not remembered"() {
+        given:
+        def failed = (1..3).collect { singleFlight.execute("key", this::query).toFuture() }
+        upstream.tryEmitError(new IllegalStateException("boom"))
+
+        when:
+        def value = singleFlight.execute("key", { -> Mono.just("retried") }).block()
+
+        then:
+        failed.every { it.isCompletedExceptionally() }
+        subscriptions.get() == 1
+        value == "retried"
+    }
+
+    def "a forgotten load is not joined by later callers"() {
+        given:
+        def first = singleFlight.execute("key", this::query).toFuture()
+
+        when:
+        singleFlight.forgetIf { it == "key" }
+        def second = singleFlight.execute("key", { -> Mono.just("fresh") }).toFuture()
+        upstream.tryEmitValue("stale")
+
+        then:
+        first.get() == "stale"
+        second.get() == "fresh"
+        singleFlight.coalesced() == 0
+    }
+
+    def "the load keeps running while any caller is still waiting"() {
+        given:
+        def leaving = singleFlight.execute("key", this::query).subscribe()
+        def staying = singleFlight.execute("key", this::query).toFuture()
+
+        when:
+        leaving.dispose()
+        upstream.tryEmitValue("value")
+
+        then:
+        staying.get() == "value"
+        cancellations.get() == 0
+    }
+
+    def "the load is cancelled once every caller has cancelled"() {
+        given:
+        def callers = (1..3).collect { singleFlight.execute("key", this::query).subscribe() }
+
+        when:
+        callers*.dispose()
+        def value = singleFlight.execute("key", { -> Mono.just("fresh") }).block()
+
+        then:
+        cancellations.get() == 1
+        subscriptions.get() == 1
+        singleFlight.coalesced() == 2
+        value == "fresh"
+    }
+
+    Mono<String> query() {
+        upstream.asMono()
+            .doOnSubscribe { subscriptions.incrementAndGet() }
+            .doOnCancel { cancellations.incrementAndGet() }
+    }
+}
@@ -0,0 +1,101 @@
+package net.frey.mongo.service
+
+import com.mongodb.ErrorCategory
+import com.mongodb.MongoWriteException
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import java.time.Duration
+import net.frey.mongo.bootstrap.BootstrapData
+import net.frey.mongo.config.WriteBehindProperties
+import net.frey.mongo.domain.Beer
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.test.context.ActiveProfiles
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import static org.springframework.data.mongodb.core.query.Criteria.where
+import static org.springframework.data.mongodb.core.query.Query.query
+
+@SpringBootTest
+@ActiveProfiles(BootstrapData.PROFILE)
+class WriteBehindBatcherTest extends Specification {
+    static final String STYLE = "Write Behind"
+    static final Duration TIMEOUT = Duration.ofSeconds(5)
+
+    @Autowired
+    ReactiveMongoTemplate template
+
+    def registry = new SimpleMeterRegistry()
+
+    def cleanup() {
+        template.remove(query(where("beerStyle").is(STYLE)), Beer).block()
+    }
+
+    def "writes a batch as soon as it is full"() {
+        given:
+        def batcher = batcher(3, Duration.ofMinutes(1))
+
+        when:
+        def saved = Mono.zip(batcher.insert(buildBeer(1)), batcher.insert(buildBeer(2)), batcher.insert(buildBeer(3)))
+            .block(TIMEOUT)
+
+        then:
+        saved.toList().every { it.id != null && it.version == 0L && it.createdDate != null }
+        registry.get("write.behind.batch.size").summary().count() == 1
+        registry.get("write.behind.batch.size").summary().totalAmount() == 3
+    }
+
+    def "writes a partial batch once its window closes"() {
+        given:
+        def batcher = batcher(100, Duration.ofMillis(50))
+
+        when:
+        def saved = Mono.zip(batcher.insert(buildBeer(1)), batcher.insert(buildBeer(2))).block(TIMEOUT)
+
+        then:
+        saved.toList().every { it.id != null }
+        registry.get("write.behind.batch.size").summary().count() == 1
+        registry.get("write.behind.batch.size").summary().totalAmount() == 2
+    }
+
+    def "a duplicate fails only the caller that sent it"() {
+        given:
+        def batcher = batcher(2, Duration.ofMinutes(1))
+        def existing = template.insert(buildBeer(1)).block()
+        def duplicate = buildBeer(2)
+        duplicate.id = existing.id
+
+        when:
+        def signals = Flux.merge(batcher.insert(duplicate).materialize(), batcher.insert(buildBeer(3)).materialize())
+            .collectList()
+            .block(TIMEOUT)
+        def failed = signals.find { it.isOnError() }
+        def written = signals.find { it.isOnNext() }
+
+        then:
+        signals.size() == 2
+        failed.throwable instanceof MongoWriteException
+        ErrorCategory.fromErrorCode(failed.throwable.code) == ErrorCategory.DUPLICATE_KEY
+        written.get().id != existing.id
+        written.get().upc == "3"
+    }
+
+    def batcher(int maxBatchSize, Duration window) {
+        def batcher = new WriteBehindBatcher<Beer>(
+            template, Beer, new WriteBehindProperties(true, maxBatchSize, window, 1000))
+        batcher.bindTo(registry, "beer")
+        batcher
+    }
+
+    static def buildBeer(int n) {
+        Beer.builder()
+            .beerName("Write Behind $n")
+            .beerStyle(STYLE)
+            .price(BigDecimal.TEN)
+            .quantityOnHand(n)
+            .upc("$n")
+            .build()
+    }
+}